@@ -0,0 +1,90 @@
+package dev.newpower;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.newpower.lexicon.LexiconSnapshot;
+import dev.newpower.service.CancellationToken;
+import dev.newpower.service.ScrabblePuzzleService;
+import dev.newpower.service.WordDictionaryService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Command-line entry point that writes a corpus of puzzles to a gzip-compressed
+ * newline-delimited JSON file, generating on every core without starting the web server.
+ * Puzzle seeds are drawn from the corpus seed as the bulk endpoint draws them from its
+ * batch seed, and puzzles are written in seed order, so a seed always gives the same file.
+ * Puzzles have no time limit, so none is cut short however loaded the machine is.
+ * <p>
+ * Options: {@code --count=<n>} (default 1000), {@code --output=<file>} (default
+ * {@code puzzles.ndjson.gz}), {@code --seed=<seed>} and {@code --lexicon=<name>}. Any
+ * application property can be passed the same way.
+ */
+public class PuzzleCorpusGenerator {
+
+    // Puzzles generated in parallel before they are written out in order
+    private static final int BATCH_SIZE = 1024;
+
+    public static void main(String[] args) throws IOException {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(WordzApplication.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(args);
+        try (context) {
+            ApplicationArguments arguments = context.getBean(ApplicationArguments.class);
+            int count = Integer.parseInt(option(arguments, "count", "1000"));
+            Path output = Path.of(option(arguments, "output", "puzzles.ndjson.gz"));
+            String seedOption = option(arguments, "seed", null);
+            long seed = seedOption != null ? Long.parseLong(seedOption) : ThreadLocalRandom.current().nextLong();
+            LexiconSnapshot lexicon = context.getBean(WordDictionaryService.class).getLexicon(option(arguments, "lexicon", null));
+
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            ScrabblePuzzleService puzzleService = context.getBean(ScrabblePuzzleService.class);
+            long start = System.nanoTime();
+            SplittableRandom seeds = new SplittableRandom(seed);
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(output), 1 << 16)) {
+                for (int written = 0; written < count; written += BATCH_SIZE) {
+                    long[] batch = LongStream.generate(seeds::nextLong).limit(Math.min(BATCH_SIZE, count - written)).toArray();
+                    List<byte[]> lines = Arrays.stream(batch).parallel()
+                            .mapToObj(puzzleSeed -> {
+                                try {
+                                    // No deadline: a puzzle cut short would differ from a rerun with the same seed
+                                    return objectMapper.writeValueAsBytes(puzzleService.generateCompactPuzzle(lexicon, puzzleSeed,
+                                            CancellationToken.none()));
+                                } catch (IOException e) {
+                                    throw new UncheckedIOException(e);
+                                }
+                            })
+                            .toList();
+                    for (byte[] line : lines) {
+                        out.write(line);
+                        out.write('\n');
+                    }
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Wrote %d puzzles from lexicon %s (seed %d) to %s in %.1f s, %.1f puzzles/s%n",
+                    count, lexicon.getName(), seed, output, seconds, count / seconds);
+        }
+    }
+
+    private static String option(ApplicationArguments arguments, String name, String defaultValue) {
+        List<String> values = arguments.getOptionValues(name);
+        return values == null || values.isEmpty() ? defaultValue : values.get(values.size() - 1);
+    }
+}
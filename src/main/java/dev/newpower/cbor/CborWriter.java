@@ -0,0 +1,166 @@
+package dev.newpower.cbor;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Minimal streaming encoder for CBOR (RFC 8949), covering the types a JSON document can
+ * hold: maps, arrays, text strings, integers, doubles, booleans and null. Maps and arrays
+ * are written with their length up front, never as indefinite-length items.
+ */
+public final class CborWriter {
+
+    private static final int UNSIGNED = 0;
+    private static final int NEGATIVE = 1 << 5;
+    private static final int TEXT = 3 << 5;
+    private static final int ARRAY = 4 << 5;
+    private static final int MAP = 5 << 5;
+    private static final int FALSE = 0xF4;
+    private static final int TRUE = 0xF5;
+    private static final int NULL = 0xF6;
+    private static final int DOUBLE = 0xFB;
+
+    private final OutputStream out;
+
+    public CborWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Starts a map of {@code size} entries; follow with that many key and value pairs.
+     */
+    public CborWriter writeMapStart(int size) throws IOException {
+        writeHeader(MAP, size);
+        return this;
+    }
+
+    /**
+     * Starts an array of {@code size} items; follow with that many items.
+     */
+    public CborWriter writeArrayStart(int size) throws IOException {
+        writeHeader(ARRAY, size);
+        return this;
+    }
+
+    public CborWriter writeString(String value) throws IOException {
+        if (value == null) {
+            return writeNull();
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeHeader(TEXT, bytes.length);
+        out.write(bytes);
+        return this;
+    }
+
+    public CborWriter writeLong(long value) throws IOException {
+        if (value >= 0) {
+            writeHeader(UNSIGNED, value);
+        } else {
+            writeHeader(NEGATIVE, -1 - value);
+        }
+        return this;
+    }
+
+    public CborWriter writeDouble(double value) throws IOException {
+        out.write(DOUBLE);
+        writeBytes(Double.doubleToRawLongBits(value), 8);
+        return this;
+    }
+
+    public CborWriter writeBoolean(boolean value) throws IOException {
+        out.write(value ? TRUE : FALSE);
+        return this;
+    }
+
+    public CborWriter writeNull() throws IOException {
+        out.write(NULL);
+        return this;
+    }
+
+    /**
+     * Writes a string field: the key, then the value.
+     */
+    public CborWriter writeField(String name, String value) throws IOException {
+        return writeString(name).writeString(value);
+    }
+
+    /**
+     * Writes an integer field: the key, then the value.
+     */
+    public CborWriter writeField(String name, long value) throws IOException {
+        return writeString(name).writeLong(value);
+    }
+
+    /**
+     * Writes a boolean field: the key, then the value.
+     */
+    public CborWriter writeField(String name, boolean value) throws IOException {
+        return writeString(name).writeBoolean(value);
+    }
+
+    /**
+     * Writes a JSON tree. Integers that fit a long are written as integers and every
+     * other number as a double.
+     */
+    public CborWriter write(JsonNode node) throws IOException {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            return writeNull();
+        }
+        if (node.isObject()) {
+            writeMapStart(node.size());
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                writeString(field.getKey());
+                write(field.getValue());
+            }
+        } else if (node.isArray()) {
+            writeArrayStart(node.size());
+            for (JsonNode item : node) {
+                write(item);
+            }
+        } else if (node.isIntegralNumber() && node.canConvertToLong()) {
+            writeLong(node.longValue());
+        } else if (node.isNumber()) {
+            writeDouble(node.doubleValue());
+        } else if (node.isBoolean()) {
+            writeBoolean(node.booleanValue());
+        } else {
+            writeString(node.asText());
+        }
+        return this;
+    }
+
+    /**
+     * Writes the initial byte of an item, its major type and argument, followed by the
+     * argument's extra bytes when it does not fit in the initial byte.
+     */
+    private void writeHeader(int majorType, long argument) throws IOException {
+        if (argument < 24) {
+            out.write(majorType | (int) argument);
+        } else if (argument <= 0xFF) {
+            out.write(majorType | 24);
+            out.write((int) argument);
+        } else if (argument <= 0xFFFF) {
+            out.write(majorType | 25);
+            writeBytes(argument, 2);
+        } else if (argument <= 0xFFFFFFFFL) {
+            out.write(majorType | 26);
+            writeBytes(argument, 4);
+        } else {
+            out.write(majorType | 27);
+            writeBytes(argument, 8);
+        }
+    }
+
+    private void writeBytes(long value, int count) throws IOException {
+        for (int shift = (count - 1) * 8; shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift));
+        }
+    }
+}
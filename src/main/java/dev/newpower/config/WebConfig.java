@@ -0,0 +1,26 @@
+package dev.newpower.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.newpower.controller.CborHttpMessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Adds CBOR after the JSON converters, so it is only used when a client asks for it
+     * and JSON stays the default.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new CborHttpMessageConverter(objectMapper));
+    }
+}
@@ -0,0 +1,59 @@
+package dev.newpower.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.newpower.cbor.CborWriter;
+import dev.newpower.model.PuzzleSnapshot;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+/**
+ * Writes responses as CBOR for clients that send {@code Accept: application/cbor}.
+ * Puzzles are written in their compact, cached CBOR form; any other response is turned
+ * into a JSON tree with the application's {@link ObjectMapper} and written key for key,
+ * so it holds exactly what the JSON response would. A puzzle's entity tag is replaced by
+ * the tag of its CBOR form. Requests are never read as CBOR.
+ */
+public class CborHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    private final ObjectMapper objectMapper;
+
+    public CborHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_CBOR);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Requests cannot be read as CBOR", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(Object value, MediaType contentType) {
+        return value instanceof PuzzleSnapshot snapshot ? (long) snapshot.getCborLength() : null;
+    }
+
+    @Override
+    protected void writeInternal(Object value, HttpOutputMessage outputMessage) throws IOException {
+        if (value instanceof PuzzleSnapshot snapshot) {
+            PuzzleSnapshotHttpMessageConverter.replaceETag(outputMessage, snapshot.getETag("cbor"));
+            snapshot.writeCbor(outputMessage.getBody());
+        } else {
+            new CborWriter(outputMessage.getBody()).write(objectMapper.valueToTree(value));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package dev.newpower.controller;
+
+import dev.newpower.lexicon.BloomFilter;
+import dev.newpower.lexicon.FilteredLexicon;
+import dev.newpower.lexicon.LexiconSnapshot;
+import dev.newpower.service.WordDictionaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dictionary")
+public class DictionaryController {
+
+    @Autowired
+    private WordDictionaryService wordDictionaryService;
+
+    @GetMapping("/info")
+    public Map<String, Object> getDictionaryInfo(@RequestParam(required = false) String lexicon) {
+        LexiconSnapshot snapshot = wordDictionaryService.getLexicon(lexicon);
+        Map<String, Object> info = describe(snapshot);
+        info.put("lexicon", wordDictionaryService.getLexiconType());
+        info.put("offHeap", snapshot.getLexicon().isOffHeap());
+        return info;
+    }
+
+    @GetMapping("/filter")
+    public Map<String, Object> getFilterStats(@RequestParam(required = false) String lexicon) {
+        FilteredLexicon filtered = wordDictionaryService.getFilteredLexicon(lexicon);
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", filtered != null);
+        if (filtered != null) {
+            BloomFilter filter = filtered.getFilter();
+            stats.put("sizeBytes", filter.sizeBytes());
+            stats.put("hashFunctions", filter.hashCount());
+            stats.put("fillRatio", filter.fillRatio());
+            stats.put("expectedFalsePositiveRate", filter.expectedFalsePositiveRate());
+            stats.put("queries", filtered.getQueries());
+            stats.put("rejected", filtered.getRejected());
+            stats.put("falsePositives", filtered.getFalsePositives());
+            stats.put("observedFalsePositiveRate", filtered.getObservedFalsePositiveRate());
+        }
+        return stats;
+    }
+
+    @GetMapping("/lexicons")
+    public Map<String, Object> getLexicons() {
+        List<Map<String, Object>> lexicons = new ArrayList<>();
+        for (LexiconSnapshot snapshot : wordDictionaryService.getLexicons().values()) {
+            lexicons.add(describe(snapshot));
+        }
+        lexicons.sort(Comparator.comparing(lexicon -> (String) lexicon.get("name")));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("default", wordDictionaryService.getDefaultLexicon().getName());
+        response.put("lexicons", lexicons);
+        return response;
+    }
+
+    @PostMapping("/lexicons/{name}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Map<String, Object> loadLexicon(@PathVariable String name) {
+        wordDictionaryService.loadLexicon(name);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("name", name);
+        response.put("status", "loading");
+        return response;
+    }
+
+    @GetMapping("/anagrams")
+    public Map<String, Object> findAnagrams(@RequestParam String rack,
+                                            @RequestParam(defaultValue = "2") int minLength,
+                                            @RequestParam(defaultValue = "false") boolean exact,
+                                            @RequestParam(required = false) String lexicon) {
+        List<String> words = wordDictionaryService.getLexicon(lexicon).findWords(rack, minLength, exact);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("rack", rack);
+        response.put("count", words.size());
+        response.put("words", words);
+        return response;
+    }
+
+    @GetMapping("/pattern")
+    public Map<String, Object> findPattern(@RequestParam String pattern,
+                                           @RequestParam(defaultValue = "100") int limit,
+                                           @RequestParam(required = false) String lexicon) {
+        LexiconSnapshot snapshot = wordDictionaryService.getLexicon(lexicon);
+        Map<String, Object> response = new HashMap<>();
+        response.put("pattern", pattern);
+        response.put("count", snapshot.getPatternIndex().count(pattern));
+        response.put("words", snapshot.findPattern(pattern, limit));
+        return response;
+    }
+
+    private Map<String, Object> describe(LexiconSnapshot snapshot) {
+        Map<String, Object> info = new HashMap<>();
+        info.put("name", snapshot.getName());
+        info.put("version", Long.toHexString(snapshot.getVersion()));
+        info.put("wordCount", snapshot.size());
+        info.put("source", snapshot.getSource());
+        info.put("loadedAt", snapshot.getLoadedAt().toString());
+        info.put("loadDurationMillis", snapshot.getLoadDurationMillis());
+        return info;
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> handleBadRequest(IllegalArgumentException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", e.getMessage());
+        return response;
+    }
+}
@@ -1,16 +1,31 @@
 package dev.newpower.controller;
 
+import dev.newpower.lexicon.LexiconSnapshot;
+import dev.newpower.model.PuzzleSnapshot;
+import dev.newpower.service.BestOfPuzzleService;
+import dev.newpower.service.BulkPuzzleService;
+import dev.newpower.service.CancellationToken;
+import dev.newpower.service.PuzzlePoolService;
 import dev.newpower.service.ScrabblePuzzleService;
+import dev.newpower.service.WordDictionaryService;
+import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
 
 @RestController
 @RequestMapping("/api/puzzle")
@@ -19,16 +34,67 @@ public class PuzzleController {
     @Autowired
     private ScrabblePuzzleService puzzleService;
     
+    @Autowired
+    private WordDictionaryService wordDictionaryService;
+    
+    @Autowired
+    private PuzzlePoolService puzzlePoolService;
+    
+    @Autowired
+    private BestOfPuzzleService bestOfPuzzleService;
+    
+    @Autowired
+    private BulkPuzzleService bulkPuzzleService;
+    
     private final CopyOnWriteArrayList<SseEmitter> emitters = new CopyOnWriteArrayList<>();
     private final ExecutorService executorService = Executors.newCachedThreadPool();
     
+    // Session attribute holding the caller's last generated puzzle
+    private static final String CURRENT_PUZZLE = "wordz.currentPuzzle";
+    
     @PostMapping("/generate")
-    public Map<String, Object> generatePuzzle() {
-        return puzzleService.generatePuzzle();
+    public PuzzleSnapshot generatePuzzle(@RequestParam(required = false) String lexicon,
+                                         @RequestParam(required = false) Long seed,
+                                         @RequestParam(required = false) Integer candidates,
+                                         @RequestParam(required = false) Long timeoutMs, HttpSession session) {
+        PuzzleSnapshot puzzle;
+        if (seed != null && candidates != null) {
+            throw new IllegalArgumentException("A seeded puzzle cannot be generated from several candidates");
+        } else if (seed != null) {
+            puzzle = puzzleService.generatePuzzle(lexicon, seed, puzzleService.newCancellationToken(timeoutMs));
+        } else if (candidates != null) {
+            puzzle = bestOfPuzzleService.generateBest(lexicon, candidates, timeoutMs);
+        } else {
+            puzzle = puzzlePoolService.take(lexicon, puzzleService.newCancellationToken(timeoutMs));
+        }
+        session.setAttribute(CURRENT_PUZZLE, puzzle);
+        return puzzle;
+    }
+    
+    @PostMapping(value = "/bulk", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> generatePuzzles(@RequestParam int count,
+                                                                 @RequestParam(required = false) Long seed,
+                                                                 @RequestParam(required = false) String lexicon) {
+        // Reject bad requests while an error status can still be sent
+        LexiconSnapshot snapshot = wordDictionaryService.getLexicon(lexicon);
+        bulkPuzzleService.checkCount(count);
+        long batchSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .header("X-Puzzle-Seed", Long.toString(batchSeed))
+            .body(out -> bulkPuzzleService.writePuzzles(snapshot, count, batchSeed, out));
     }
     
     @GetMapping(value = "/generate-animated", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter generatePuzzleAnimated() {
+    public SseEmitter generatePuzzleAnimated(@RequestParam(required = false) String lexicon,
+                                             @RequestParam(required = false) Long seed,
+                                             @RequestParam(required = false) Long timeoutMs, HttpSession session) {
+        // Reject an unknown lexicon or timeout before the event stream starts
+        LexiconSnapshot snapshot = wordDictionaryService.getLexicon(lexicon);
+        CancellationToken token = puzzleService.newCancellationToken(timeoutMs);
+        long puzzleSeed = seed != null ? seed : ThreadLocalRandom.current().nextLong();
+        
         SseEmitter emitter = new SseEmitter(Long.MAX_VALUE);
         emitters.add(emitter);
         
@@ -46,7 +112,7 @@ public class PuzzleController {
                     .data("Puzzle generation started"));
                 
                 // Generate puzzle with placement callback
-                Map<String, Object> puzzle = puzzleService.generatePuzzle(placementEvent -> {
+                PuzzleSnapshot puzzle = puzzleService.generatePuzzle(snapshot, puzzleSeed, token, placementEvent -> {
                     try {
                         String eventType = (String) placementEvent.get("type");
                         if ("word_complete".equals(eventType)) {
@@ -67,10 +133,14 @@ public class PuzzleController {
                                 .data(placementEvent));
                         }
                     } catch (IOException e) {
+                        // The client has gone, so there is no one left to generate for
                         emitters.remove(emitter);
+                        token.cancel();
                     }
                 });
                 
+                session.setAttribute(CURRENT_PUZZLE, puzzle);
+                
                 // Send final puzzle data
                 emitter.send(SseEmitter.event()
                     .name("generation_complete")
@@ -88,7 +158,68 @@ public class PuzzleController {
     }
     
     @GetMapping("/current")
-    public Map<String, Object> getCurrentPuzzle() {
-        return puzzleService.getCurrentPuzzle();
+    public ResponseEntity<PuzzleSnapshot> getCurrentPuzzle(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                           @SessionAttribute(name = CURRENT_PUZZLE, required = false) PuzzleSnapshot puzzle) {
+        // Polling without a session must not start one
+        return conditionalResponse(puzzle != null ? puzzle : puzzleService.getEmptyPuzzle(), ifNoneMatch);
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<PuzzleSnapshot> getPuzzle(@PathVariable long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        PuzzleSnapshot puzzle = puzzleService.getStoredPuzzle(id);
+        if (puzzle == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No puzzle with ID " + id);
+        }
+        return conditionalResponse(puzzle, ifNoneMatch);
+    }
+    
+    /**
+     * Answers 304 Not Modified when the client already holds a representation of the
+     * puzzle, and sends the puzzle with its entity tag otherwise.
+     */
+    private ResponseEntity<PuzzleSnapshot> conditionalResponse(PuzzleSnapshot puzzle, String ifNoneMatch) {
+        String match = puzzle.matchETag(ifNoneMatch);
+        if (match != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(match)
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(puzzle.getETag())
+            .varyBy(HttpHeaders.ACCEPT)
+            .body(puzzle);
+    }
+    
+    @GetMapping("/layout")
+    public Map<String, Object> getLayout() {
+        return puzzleService.getLayout();
+    }
+    
+    @GetMapping("/pool")
+    public Map<String, Object> getPool() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("enabled", puzzlePoolService.isEnabled());
+        response.put("size", puzzlePoolService.size());
+        response.put("capacity", puzzlePoolService.getCapacity());
+        response.put("lowWaterMark", puzzlePoolService.getLowWaterMark());
+        response.put("hitRatio", puzzlePoolService.getHitRatio());
+        return response;
+    }
+    
+    @DeleteMapping("/pool")
+    public Map<String, Object> drainPool() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("drained", puzzlePoolService.drain());
+        return response;
+    }
+    
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public Map<String, Object> handleBadRequest(IllegalArgumentException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", e.getMessage());
+        return response;
     }
-} 
\ No newline at end of file
+}
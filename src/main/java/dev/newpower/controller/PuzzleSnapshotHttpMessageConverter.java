@@ -0,0 +1,115 @@
+package dev.newpower.controller;
+
+import dev.newpower.model.PuzzleSnapshot;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link PuzzleSnapshot} as its cached JSON bytes, without going through Jackson.
+ * Spring Boot puts converter beans ahead of its defaults, so this one handles every puzzle
+ * response and event. Puzzles are never read from requests.
+ * <p>
+ * A response of at least {@code wordz.puzzle.compression.min-size} bytes is sent as the
+ * snapshot's cached gzip bytes when the client accepts gzip, with the entity tag of that
+ * representation. Event streams are never compressed here.
+ */
+@Component
+public class PuzzleSnapshotHttpMessageConverter extends AbstractHttpMessageConverter<PuzzleSnapshot> {
+
+    private static final String GZIP = "gzip";
+
+    @Value("${wordz.puzzle.compression.min-size:1024}")
+    private int compressionMinSize;
+
+    public PuzzleSnapshotHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return PuzzleSnapshot.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected PuzzleSnapshot readInternal(Class<? extends PuzzleSnapshot> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Puzzles cannot be read from requests", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(PuzzleSnapshot snapshot, MediaType contentType) {
+        return (long) snapshot.getJsonLength();
+    }
+
+    @Override
+    protected void writeInternal(PuzzleSnapshot snapshot, HttpOutputMessage outputMessage) throws IOException {
+        // Only a whole response can be compressed, not an event in a stream
+        if (!(outputMessage instanceof ServletServerHttpResponse) || snapshot.getJsonLength() < compressionMinSize) {
+            snapshot.writeJson(outputMessage.getBody());
+            return;
+        }
+
+        ((ServletServerHttpResponse) outputMessage).getServletResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip()) {
+            snapshot.writeJson(outputMessage.getBody());
+            return;
+        }
+        outputMessage.getHeaders().set(HttpHeaders.CONTENT_ENCODING, GZIP);
+        outputMessage.getHeaders().setContentLength(snapshot.getGzippedJsonLength());
+        replaceETag(outputMessage, snapshot.getETag(GZIP));
+        snapshot.writeGzippedJson(outputMessage.getBody());
+    }
+
+    /**
+     * Replaces the entity tag of a response that has one with the tag of the
+     * representation being written. Spring writes the tag of a {@code ResponseEntity}
+     * straight to the servlet response, so it is replaced there.
+     */
+    static void replaceETag(HttpOutputMessage outputMessage, String eTag) {
+        if (outputMessage instanceof ServletServerHttpResponse response
+                && response.getServletResponse().containsHeader(HttpHeaders.ETAG)) {
+            response.getServletResponse().setHeader(HttpHeaders.ETAG, eTag);
+        } else if (outputMessage.getHeaders().getETag() != null) {
+            outputMessage.getHeaders().setETag(eTag);
+        }
+    }
+
+    /**
+     * Checks if the current request's {@code Accept-Encoding} allows gzip.
+     */
+    private static boolean acceptsGzip() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return false;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase(GZIP) || name.equals("*")) {
+                // A quality of 0 means the coding is not acceptable
+                return parts.length < 2 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
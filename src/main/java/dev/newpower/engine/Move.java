@@ -0,0 +1,64 @@
+package dev.newpower.engine;
+
+/**
+ * A word played on the board: its letters, where it starts, which way it reads and how
+ * many new tiles it puts down. Letters already on the board are part of the word.
+ */
+public final class Move {
+
+    private final String word;
+    private final int row;
+    private final int col;
+    private final boolean horizontal;
+    private final int tilesPlaced;
+
+    public Move(String word, int row, int col, boolean horizontal, int tilesPlaced) {
+        this.word = word;
+        this.row = row;
+        this.col = col;
+        this.horizontal = horizontal;
+        this.tilesPlaced = tilesPlaced;
+    }
+
+    public String getWord() {
+        return word;
+    }
+
+    public int getRow() {
+        return row;
+    }
+
+    public int getCol() {
+        return col;
+    }
+
+    public boolean isHorizontal() {
+        return horizontal;
+    }
+
+    /**
+     * Gets the number of new tiles the move puts on the board.
+     */
+    public int getTilesPlaced() {
+        return tilesPlaced;
+    }
+
+    /**
+     * Gets the row of the letter at an index in the word.
+     */
+    public int rowAt(int index) {
+        return horizontal ? row : row + index;
+    }
+
+    /**
+     * Gets the column of the letter at an index in the word.
+     */
+    public int colAt(int index) {
+        return horizontal ? col + index : col;
+    }
+
+    @Override
+    public String toString() {
+        return word + " at (" + row + "," + col + ") " + (horizontal ? "horizontal" : "vertical");
+    }
+}
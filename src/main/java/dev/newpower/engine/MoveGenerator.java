@@ -0,0 +1,321 @@
+package dev.newpower.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import dev.newpower.lexicon.Dawg;
+import dev.newpower.lexicon.WordGraph;
+import dev.newpower.model.ScrabbleBoard;
+
+/**
+ * Enumerates every legal move for a set of tiles, after Appel and Jacobson's
+ * "The World's Fastest Scrabble Program".
+ * <p>
+ * Moves are only started from anchor squares, the empty squares next to a tile (or the
+ * centre square on an empty board). Each empty square carries a cross-check mask of the
+ * letters that form a valid perpendicular word there, taken from the board when it keeps
+ * them for the same word graph and computed otherwise. From each anchor the generator
+ * grows a left part over the empty squares before it, then extends right through the
+ * anchor, walking the forward {@link Dawg} one letter at a time and only trying letters
+ * that are on the rack, leave the current node and pass the square's cross-check. Whole
+ * subtrees of impossible placements are therefore never visited.
+ * <p>
+ * Columns are handled by running the same row logic over a transposed copy of the board.
+ * Blanks on the rack can stand for any letter and are reported in lower case.
+ * An instance keeps scratch state between calls and must not be shared between threads.
+ */
+public final class MoveGenerator {
+
+    /** Most tiles a single move may use, the size of a rack. */
+    public static final int MAX_TILES = 7;
+
+    private static final int SIZE = 15;
+    private static final int ANY_LETTER = (1 << 26) - 1;
+
+    private final WordGraph graph;
+    private final Dawg dawg;
+
+    // Board in the orientation being generated: line-major, 0 for an empty square
+    private final char[] cells = new char[SIZE * SIZE];
+    private final int[] crossChecks = new int[SIZE * SIZE];
+    private final int[] anchors = new int[SIZE];
+    private final char[] word = new char[SIZE];
+    private final StringBuilder before = new StringBuilder(SIZE);
+    private final StringBuilder after = new StringBuilder(SIZE);
+
+    private int[] rack;
+    private int rackMask;
+    private int blanks;
+    private int maxTiles;
+    private int tilesPlaced;
+    private boolean horizontal;
+    private int line;
+    private int anchor;
+    private MoveVisitor visitor;
+
+    public MoveGenerator(WordGraph graph) {
+        this.graph = graph;
+        this.dawg = graph.forward();
+    }
+
+    /**
+     * Finds every legal move.
+     * @param rack Count of each letter available (index 0 = A); left unchanged
+     * @param maxTiles Most tiles a move may use
+     */
+    public List<Move> generate(ScrabbleBoard board, int[] rack, int maxTiles) {
+        return generate(board, rack, 0, maxTiles);
+    }
+
+    /**
+     * Finds every legal move, playing blanks as any letter.
+     * @param rack Count of each letter available (index 0 = A); left unchanged
+     * @param blanks Number of blanks available
+     * @param maxTiles Most tiles a move may use
+     */
+    public List<Move> generate(ScrabbleBoard board, int[] rack, int blanks, int maxTiles) {
+        List<Move> moves = new ArrayList<>();
+        generate(board, rack, blanks, maxTiles, (letters, length, row, col, across, tiles) ->
+                moves.add(new Move(new String(letters, 0, length), row, col, across, tiles)));
+        return moves;
+    }
+
+    /**
+     * Visits every legal move. A move of a single tile that forms words both ways is
+     * visited once for each direction.
+     * @param rack Count of each letter available (index 0 = A); left unchanged
+     * @param maxTiles Most tiles a move may use
+     */
+    public void generate(ScrabbleBoard board, int[] rack, int maxTiles, MoveVisitor visitor) {
+        generate(board, rack, 0, maxTiles, visitor);
+    }
+
+    /**
+     * Visits every legal move, playing blanks as any letter. A move that could use either
+     * a tile or a blank for a letter is visited once for each, as the two score differently.
+     * @param rack Count of each letter available (index 0 = A); left unchanged
+     * @param blanks Number of blanks available
+     * @param maxTiles Most tiles a move may use
+     */
+    public void generate(ScrabbleBoard board, int[] rack, int blanks, int maxTiles, MoveVisitor visitor) {
+        this.rack = rack;
+        this.blanks = blanks;
+        this.maxTiles = Math.min(maxTiles, MAX_TILES);
+        this.visitor = visitor;
+        this.rackMask = 0;
+        for (int letter = 0; letter < 26; letter++) {
+            if (rack[letter] > 0) {
+                rackMask |= 1 << letter;
+            }
+        }
+        if (this.maxTiles <= 0 || (rackMask == 0 && blanks <= 0)) {
+            return;
+        }
+
+        boolean empty = board.getPlacedTileCount() == 0;
+        generateLines(board, true);
+        // On an empty board every column play is the mirror image of a row play
+        if (!empty) {
+            generateLines(board, false);
+        }
+        this.visitor = null;
+        this.rack = null;
+    }
+
+    private void generateLines(ScrabbleBoard board, boolean across) {
+        horizontal = across;
+        load(board);
+        findCrossChecks(board);
+
+        for (line = 0; line < SIZE; line++) {
+            int emptyRun = 0;
+            for (int pos = 0; pos < SIZE; pos++) {
+                int index = line * SIZE + pos;
+                if ((anchors[line] & (1 << pos)) == 0) {
+                    emptyRun = cells[index] == 0 ? emptyRun + 1 : 0;
+                    continue;
+                }
+                anchor = pos;
+                tilesPlaced = 0;
+                if (pos > 0 && cells[index - 1] != 0) {
+                    // The tiles to the left of the anchor are a fixed left part
+                    int start = pos;
+                    while (start > 0 && cells[line * SIZE + start - 1] != 0) {
+                        start--;
+                    }
+                    int node = dawg.root();
+                    for (int p = start; p < pos && node != Dawg.NONE; p++) {
+                        word[p - start] = cells[line * SIZE + p];
+                        node = dawg.child(node, cells[line * SIZE + p]);
+                    }
+                    if (node != Dawg.NONE) {
+                        extendRight(node, pos - start, pos);
+                    }
+                } else {
+                    leftPart(dawg.root(), 0, Math.min(emptyRun, this.maxTiles - 1));
+                }
+                emptyRun = 0;
+            }
+        }
+    }
+
+    /**
+     * Copies the letters and anchors of each line in the current orientation, using the
+     * board's transposed view for column plays.
+     */
+    private void load(ScrabbleBoard board) {
+        for (int l = 0; l < SIZE; l++) {
+            anchors[l] = board.getAnchors(l, horizontal);
+            for (int pos = 0; pos < SIZE; pos++) {
+                cells[l * SIZE + pos] = board.getLetter(l, pos, horizontal);
+            }
+        }
+    }
+
+    private void findCrossChecks(ScrabbleBoard board) {
+        // A board built on the same word graph already keeps its cross-checks up to date
+        boolean maintained = board.getWordGraph() == graph;
+        for (int l = 0; l < SIZE; l++) {
+            for (int pos = 0; pos < SIZE; pos++) {
+                int index = l * SIZE + pos;
+                if (cells[index] != 0) {
+                    crossChecks[index] = 0;
+                    continue;
+                }
+                if (maintained) {
+                    crossChecks[index] = horizontal ? board.getCrossCheck(l, pos, true) : board.getCrossCheck(pos, l, false);
+                } else {
+                    boolean up = l > 0 && cells[index - SIZE] != 0;
+                    boolean down = l < SIZE - 1 && cells[index + SIZE] != 0;
+                    crossChecks[index] = up || down ? crossCheck(l, pos) : ANY_LETTER;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the letters that form a valid word with the tiles directly above and below
+     * an empty square in the current orientation.
+     */
+    private int crossCheck(int l, int pos) {
+        before.setLength(0);
+        after.setLength(0);
+        int start = l;
+        while (start > 0 && cells[(start - 1) * SIZE + pos] != 0) {
+            start--;
+        }
+        for (int i = start; i < l; i++) {
+            before.append(cells[i * SIZE + pos]);
+        }
+        for (int i = l + 1; i < SIZE && cells[i * SIZE + pos] != 0; i++) {
+            after.append(cells[i * SIZE + pos]);
+        }
+        return graph.crossCheck(before, after);
+    }
+
+    /**
+     * Tries every left part of up to {@code limit} rack tiles ending just before the anchor.
+     */
+    private void leftPart(int node, int length, int limit) {
+        extendRight(node, length, anchor);
+        if (limit == 0) {
+            return;
+        }
+        int candidates = dawg.childMask(node) & playable();
+        while (candidates != 0) {
+            int letter = Integer.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            int child = dawg.child(node, letter);
+            if (rack[letter] > 0) {
+                take(letter);
+                word[length] = (char) ('A' + letter);
+                leftPart(child, length + 1, limit - 1);
+                putBack(letter);
+            }
+            if (blanks > 0) {
+                takeBlank();
+                word[length] = (char) ('a' + letter);
+                leftPart(child, length + 1, limit - 1);
+                putBackBlank();
+            }
+        }
+    }
+
+    /**
+     * Extends the word in {@link #word} rightwards from a square, reporting each complete
+     * word that covers the anchor.
+     */
+    private void extendRight(int node, int length, int pos) {
+        int index = line * SIZE + pos;
+        if (pos == SIZE || cells[index] == 0) {
+            if (pos > anchor && dawg.isTerminal(node)) {
+                report(length, pos - length);
+            }
+            if (pos == SIZE || tilesPlaced == maxTiles) {
+                return;
+            }
+            int candidates = dawg.childMask(node) & playable() & crossChecks[index];
+            while (candidates != 0) {
+                int letter = Integer.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                int child = dawg.child(node, letter);
+                if (rack[letter] > 0) {
+                    take(letter);
+                    word[length] = (char) ('A' + letter);
+                    extendRight(child, length + 1, pos + 1);
+                    putBack(letter);
+                }
+                if (blanks > 0) {
+                    takeBlank();
+                    word[length] = (char) ('a' + letter);
+                    extendRight(child, length + 1, pos + 1);
+                    putBackBlank();
+                }
+            }
+        } else {
+            int next = dawg.child(node, cells[index]);
+            if (next != Dawg.NONE) {
+                word[length] = cells[index];
+                extendRight(next, length + 1, pos + 1);
+            }
+        }
+    }
+
+    /**
+     * Gets the letters the tiles left can be played as.
+     */
+    private int playable() {
+        return blanks > 0 ? ANY_LETTER : rackMask;
+    }
+
+    private void takeBlank() {
+        tilesPlaced++;
+        blanks--;
+    }
+
+    private void putBackBlank() {
+        tilesPlaced--;
+        blanks++;
+    }
+
+    private void take(int letter) {
+        tilesPlaced++;
+        if (--rack[letter] == 0) {
+            rackMask &= ~(1 << letter);
+        }
+    }
+
+    private void putBack(int letter) {
+        tilesPlaced--;
+        rack[letter]++;
+        rackMask |= 1 << letter;
+    }
+
+    private void report(int length, int start) {
+        if (horizontal) {
+            visitor.visit(word, length, line, start, true, tilesPlaced);
+        } else {
+            visitor.visit(word, length, start, line, false, tilesPlaced);
+        }
+    }
+}
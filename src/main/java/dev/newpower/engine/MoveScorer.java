@@ -0,0 +1,130 @@
+package dev.newpower.engine;
+
+import dev.newpower.model.ScrabbleBag;
+import dev.newpower.model.ScrabbleBoard;
+
+/**
+ * Scores moves: the main word, every cross word the new tiles form and the bonus for
+ * using a whole rack.
+ * <p>
+ * The premium squares and letter values are static tables shared by every scorer. When a
+ * board is loaded, each empty square is given the face value of the perpendicular word a
+ * tile there would join, in both directions, or {@code -1} when it would join none. Scoring
+ * a move is then one pass over its letters with no lookups beyond those tables, and
+ * nothing is allocated, so a solver can score every move the {@link MoveGenerator} visits.
+ * <p>
+ * Upper-case letters score their face value and lower-case letters stand for blanks,
+ * which score nothing. An instance keeps the loaded board and must not be shared between
+ * threads.
+ */
+public final class MoveScorer {
+
+    /** Bonus for a move that uses all seven tiles of a rack. */
+    public static final int BINGO_BONUS = 50;
+
+    private static final int SIZE = 15;
+    private static final int NO_CROSS_WORD = -1;
+
+    private static final byte[] WORD_MULTIPLIERS = new byte[SIZE * SIZE];
+    private static final byte[] LETTER_MULTIPLIERS = new byte[SIZE * SIZE];
+    // Face value by character, so a blank's lower-case letter scores 0
+    private static final byte[] LETTER_POINTS = new byte[128];
+
+    static {
+        ScrabbleBoard layout = new ScrabbleBoard();
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                WORD_MULTIPLIERS[row * SIZE + col] = (byte) layout.getWordMultiplier(row, col);
+                LETTER_MULTIPLIERS[row * SIZE + col] = (byte) layout.getLetterMultiplier(row, col);
+            }
+        }
+        for (char letter = 'A'; letter <= 'Z'; letter++) {
+            LETTER_POINTS[letter] = (byte) ScrabbleBag.getPointValue(letter);
+        }
+    }
+
+    // Loaded board, row-major, 0 for an empty square
+    private final char[] cells = new char[SIZE * SIZE];
+    // Face value of the column word (for moves across) and row word (for moves down) a new tile joins
+    private final int[] columnWords = new int[SIZE * SIZE];
+    private final int[] rowWords = new int[SIZE * SIZE];
+    private final char[] scratch = new char[SIZE];
+
+    /**
+     * Loads the board that moves will be played on. Call again whenever it changes.
+     */
+    public void load(ScrabbleBoard board) {
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                cells[row * SIZE + col] = board.getLetter(row, col, true);
+            }
+        }
+        for (int square = 0; square < SIZE * SIZE; square++) {
+            if (cells[square] != 0) {
+                columnWords[square] = NO_CROSS_WORD;
+                rowWords[square] = NO_CROSS_WORD;
+            } else {
+                columnWords[square] = neighbourPoints(square, SIZE, square / SIZE);
+                rowWords[square] = neighbourPoints(square, 1, square % SIZE);
+            }
+        }
+    }
+
+    /**
+     * Sums the tiles touching an empty square on both sides along one direction.
+     * @param step 1 for the row, {@link #SIZE} for the column
+     * @param position The square's index along that direction
+     * @return The sum, or {@link #NO_CROSS_WORD} if no tile touches the square that way
+     */
+    private int neighbourPoints(int square, int step, int position) {
+        int points = 0;
+        boolean touching = false;
+        for (int p = position - 1, s = square - step; p >= 0 && cells[s] != 0; p--, s -= step) {
+            points += LETTER_POINTS[cells[s]];
+            touching = true;
+        }
+        for (int p = position + 1, s = square + step; p < SIZE && cells[s] != 0; p++, s += step) {
+            points += LETTER_POINTS[cells[s]];
+            touching = true;
+        }
+        return touching ? points : NO_CROSS_WORD;
+    }
+
+    /**
+     * Scores a move on the loaded board. Takes the same arguments a {@link MoveVisitor} gets.
+     * @param letters The whole word along the line of play, including tiles already on the board
+     * @param tilesPlaced Number of tiles the move takes from the rack
+     */
+    public int score(char[] letters, int length, int row, int col, boolean horizontal, int tilesPlaced) {
+        int step = horizontal ? 1 : SIZE;
+        int[] crossWords = horizontal ? columnWords : rowWords;
+        int square = row * SIZE + col;
+        int wordPoints = 0;
+        int wordMultiplier = 1;
+        int crossPoints = 0;
+        for (int i = 0; i < length; i++, square += step) {
+            if (cells[square] != 0) {
+                // Premium squares only count for the move that covers them
+                wordPoints += LETTER_POINTS[cells[square]];
+                continue;
+            }
+            int letterPoints = LETTER_POINTS[letters[i] & 0x7F] * LETTER_MULTIPLIERS[square];
+            int multiplier = WORD_MULTIPLIERS[square];
+            wordPoints += letterPoints;
+            wordMultiplier *= multiplier;
+            if (crossWords[square] != NO_CROSS_WORD) {
+                crossPoints += (crossWords[square] + letterPoints) * multiplier;
+            }
+        }
+        return wordPoints * wordMultiplier + crossPoints + (tilesPlaced == MoveGenerator.MAX_TILES ? BINGO_BONUS : 0);
+    }
+
+    /**
+     * Scores a move on the loaded board.
+     */
+    public int score(Move move) {
+        String word = move.getWord();
+        word.getChars(0, word.length(), scratch, 0);
+        return score(scratch, word.length(), move.getRow(), move.getCol(), move.isHorizontal(), move.getTilesPlaced());
+    }
+}
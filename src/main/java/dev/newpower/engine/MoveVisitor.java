@@ -0,0 +1,21 @@
+package dev.newpower.engine;
+
+/**
+ * Callback for walking the legal moves on a board without allocating an object per move.
+ */
+@FunctionalInterface
+public interface MoveVisitor {
+
+    /**
+     * Called once per legal move.
+     * @param letters Buffer holding the letters of the whole word formed along the line of play,
+     *                including tiles already on the board, in upper case except for blanks, which
+     *                are in lower case; only valid during the call
+     * @param length Number of letters in the word
+     * @param row Row of the first letter
+     * @param col Column of the first letter
+     * @param horizontal True if the word reads left to right, false if top to bottom
+     * @param tilesPlaced Number of tiles the move takes from the rack
+     */
+    void visit(char[] letters, int length, int row, int col, boolean horizontal, int tilesPlaced);
+}
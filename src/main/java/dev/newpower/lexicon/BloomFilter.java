@@ -0,0 +1,161 @@
+package dev.newpower.lexicon;
+
+/**
+ * Bloom filter over the words of a lexicon. It answers "definitely not a word" from a
+ * single small bit array, so most invalid candidates are rejected without walking the
+ * word graph or building a string. A positive answer only means "maybe"; callers still
+ * make the exact lookup.
+ * <p>
+ * Words are hashed by letter index, so upper and lower case hash alike, and any
+ * non-letter means the sequence cannot be a word.
+ */
+public final class BloomFilter {
+
+    /** Default size: 256 KB, small enough to stay resident in a typical L2 cache. */
+    public static final int DEFAULT_BITS = 256 * 1024 * 8;
+
+    private static final int MAX_HASHES = 16;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long NOT_A_WORD = 0;
+
+    private final long[] bits;
+    private final int mask;
+    private final int hashCount;
+    private final int wordCount;
+
+    private BloomFilter(int size, int hashCount, int wordCount) {
+        this.bits = new long[size >>> 6];
+        this.mask = size - 1;
+        this.hashCount = hashCount;
+        this.wordCount = wordCount;
+    }
+
+    /**
+     * Builds a filter holding every word of a lexicon.
+     * @param size Number of bits, rounded up to a power of two of at least 64
+     */
+    public static BloomFilter build(Lexicon lexicon, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Filter size must be positive: " + size);
+        }
+        int bitCount = Math.max(64, Integer.highestOneBit(size - 1) << 1);
+        int words = lexicon.size();
+        // k = (m / n) ln 2 minimizes the false positive rate for a given size
+        int hashes = words == 0 ? 1 : (int) Math.round((double) bitCount / words * Math.log(2));
+        BloomFilter filter = new BloomFilter(bitCount, Math.max(1, Math.min(MAX_HASHES, hashes)), words);
+        lexicon.forEachWord(filter::add);
+        return filter;
+    }
+
+    private void add(char[] letters, int length) {
+        long hash = hash(letters, 0, length);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (h1 + i * h2) & mask;
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Checks if the letters {@code letters[offset, offset + length)} might form a word.
+     * @return false if they are certainly not a word
+     */
+    public boolean mightContain(char[] letters, int offset, int length) {
+        long hash = hash(letters, offset, length);
+        return hash != NOT_A_WORD && test(hash);
+    }
+
+    /**
+     * Checks if a sequence of letters might be a word.
+     * @return false if it is certainly not a word
+     */
+    public boolean mightContain(CharSequence word) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < word.length(); i++) {
+            int letter = Dawg.letterIndex(word.charAt(i));
+            if (letter < 0) {
+                return false;
+            }
+            hash = (hash ^ letter) * FNV_PRIME;
+        }
+        return test(mix(hash ^ word.length()));
+    }
+
+    private boolean test(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(char[] letters, int offset, int length) {
+        long hash = FNV_OFFSET;
+        for (int i = offset; i < offset + length; i++) {
+            int letter = Dawg.letterIndex(letters[i]);
+            if (letter < 0) {
+                return NOT_A_WORD;
+            }
+            hash = (hash ^ letter) * FNV_PRIME;
+        }
+        return mix(hash ^ length);
+    }
+
+    /**
+     * Spreads the bits of an FNV hash so both 32-bit halves are usable as indexes.
+     */
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        // Zero is reserved for sequences that are not words
+        return hash == NOT_A_WORD ? 1 : hash;
+    }
+
+    /**
+     * Gets the size of the bit array in bytes.
+     */
+    public int sizeBytes() {
+        return bits.length * Long.BYTES;
+    }
+
+    /**
+     * Gets the number of bits set per word.
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * Gets the fraction of bits that are set.
+     */
+    public double fillRatio() {
+        long set = 0;
+        for (long word : bits) {
+            set += Long.bitCount(word);
+        }
+        return (double) set / (bits.length * 64L);
+    }
+
+    /**
+     * Gets the expected chance that a sequence which is not a word passes the filter.
+     */
+    public double expectedFalsePositiveRate() {
+        return Math.pow(fillRatio(), hashCount);
+    }
+
+    /**
+     * Gets the number of words added to the filter.
+     */
+    public int wordCount() {
+        return wordCount;
+    }
+}
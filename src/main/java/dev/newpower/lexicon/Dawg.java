@@ -0,0 +1,200 @@
+package dev.newpower.lexicon;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+
+/**
+ * Immutable, minimized directed acyclic word graph over the letters A-Z.
+ * <p>
+ * All nodes live in a single int buffer, which may sit on the heap or be memory-mapped
+ * straight from a {@link LexiconFile}. A node starts with a header holding a 26-bit mask
+ * of its outgoing letters plus a terminal flag, followed by one int per outgoing edge (in
+ * letter order) holding the index of the target node. Finding a child is a popcount on the
+ * header, so walking the graph one letter at a time never allocates.
+ */
+public final class Dawg implements Lexicon {
+
+    /** Returned by the walk methods when no such path exists. */
+    public static final int NONE = -1;
+
+    static final int LETTER_BITS = (1 << 26) - 1;
+    static final int TERMINAL = 1 << 26;
+
+    private final IntBuffer nodes;
+    private final int wordCount;
+
+    Dawg(IntBuffer nodes, int wordCount) {
+        this.nodes = nodes;
+        this.wordCount = wordCount;
+    }
+
+    /**
+     * Gets the root node.
+     */
+    public int root() {
+        return 0;
+    }
+
+    /**
+     * Checks if the path leading to a node spells a complete word.
+     */
+    public boolean isTerminal(int node) {
+        return node != NONE && (nodes.get(node) & TERMINAL) != 0;
+    }
+
+    /**
+     * Gets the letters leaving a node as a bit mask (bit 0 = A, bit 25 = Z).
+     */
+    public int childMask(int node) {
+        return node == NONE ? 0 : nodes.get(node) & LETTER_BITS;
+    }
+
+    /**
+     * Follows the edge for a letter index (0-25) out of a node.
+     * @return The target node, or {@link #NONE} if the letter cannot follow
+     */
+    public int child(int node, int letter) {
+        if (node == NONE || letter < 0 || letter >= 26) {
+            return NONE;
+        }
+        int header = nodes.get(node);
+        int bit = 1 << letter;
+        if ((header & bit) == 0) {
+            return NONE;
+        }
+        return nodes.get(node + 1 + Integer.bitCount(header & LETTER_BITS & (bit - 1)));
+    }
+
+    /**
+     * Follows the edge for a character out of a node. Lower-case letters are accepted.
+     */
+    public int child(int node, char c) {
+        return child(node, letterIndex(c));
+    }
+
+    /**
+     * Walks the letters of a sequence starting at a node.
+     * @return The node reached, or {@link #NONE} if the path leaves the graph
+     */
+    public int walk(int node, CharSequence letters) {
+        return walk(node, letters, 0, letters.length());
+    }
+
+    /**
+     * Walks the letters {@code letters[start, end)} starting at a node.
+     */
+    public int walk(int node, CharSequence letters, int start, int end) {
+        for (int i = start; i < end && node != NONE; i++) {
+            node = child(node, letters.charAt(i));
+        }
+        return node;
+    }
+
+    /**
+     * Checks if the graph contains a complete word.
+     */
+    @Override
+    public boolean contains(CharSequence word) {
+        return word.length() > 0 && isTerminal(walk(root(), word));
+    }
+
+    /**
+     * Checks if a slice of a char array is a complete word, without allocating.
+     */
+    @Override
+    public boolean contains(char[] letters, int offset, int length) {
+        int node = root();
+        for (int i = offset; i < offset + length && node != NONE; i++) {
+            node = child(node, letters[i]);
+        }
+        return length > 0 && isTerminal(node);
+    }
+
+    /**
+     * Checks if any word in the graph starts with the given prefix.
+     */
+    @Override
+    public boolean containsPrefix(CharSequence prefix) {
+        return walk(root(), prefix) != NONE;
+    }
+
+    /**
+     * Visits every word in the graph in ascending order. The visitor receives a shared
+     * buffer that is overwritten after it returns, so no per-word objects are created.
+     */
+    @Override
+    public void forEachWord(WordVisitor visitor) {
+        visit(root(), new char[64], 0, visitor);
+    }
+
+    private void visit(int node, char[] word, int depth, WordVisitor visitor) {
+        if (depth > 0 && isTerminal(node)) {
+            visitor.visit(word, depth);
+        }
+        int letters = childMask(node);
+        while (letters != 0) {
+            int letter = Integer.numberOfTrailingZeros(letters);
+            letters &= letters - 1;
+            word[depth] = (char) ('A' + letter);
+            visit(child(node, letter), word, depth + 1, visitor);
+        }
+    }
+
+    /**
+     * Gets the number of words in the graph.
+     */
+    @Override
+    public int size() {
+        return wordCount;
+    }
+
+    @Override
+    public boolean isOffHeap() {
+        return nodes.isDirect();
+    }
+
+    /**
+     * Copies the graph into direct memory outside the Java heap. Graphs that are already
+     * off-heap, such as those mapped from a snapshot file, are returned as-is.
+     */
+    public Dawg toOffHeap() {
+        if (isOffHeap()) {
+            return this;
+        }
+        IntBuffer source = nodeBuffer();
+        IntBuffer direct = ByteBuffer.allocateDirect(source.remaining() * 4)
+                .order(ByteOrder.nativeOrder())
+                .asIntBuffer();
+        direct.put(source).flip();
+        return new Dawg(direct, wordCount);
+    }
+
+    /**
+     * Gets the number of ints used to store the graph.
+     */
+    public int nodeArrayLength() {
+        return nodes.limit();
+    }
+
+    /**
+     * Gets a read-only view of the packed node buffer, positioned at zero.
+     */
+    IntBuffer nodeBuffer() {
+        return nodes.asReadOnlyBuffer().clear();
+    }
+
+    /**
+     * Maps a letter to its index (A/a = 0 ... Z/z = 25).
+     * @return The letter index, or -1 if the character is not a letter
+     */
+    public static int letterIndex(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a';
+        }
+        return -1;
+    }
+}
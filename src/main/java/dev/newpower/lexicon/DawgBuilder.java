@@ -0,0 +1,166 @@
+package dev.newpower.lexicon;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds a minimized {@link Dawg} from words supplied in ascending order, using the
+ * incremental construction of Daciuk et al. Only the path of the most recent word is kept
+ * unminimized; everything behind it is merged into a register of unique nodes as soon as
+ * it can no longer change.
+ */
+public final class DawgBuilder {
+
+    private final Node root = new Node();
+    private final Map<Node, Node> register = new HashMap<>();
+    private final List<Node> path = new ArrayList<>();
+    private final char[] previous = new char[64];
+    private int previousLength;
+    private int wordCount;
+
+    public DawgBuilder() {
+        path.add(root);
+    }
+
+    /**
+     * Adds a word. Words must be upper-case A-Z and arrive in ascending order;
+     * a repeat of the previous word is ignored.
+     */
+    public DawgBuilder add(CharSequence word) {
+        int length = word.length();
+        if (length == 0 || length > previous.length) {
+            throw new IllegalArgumentException("Unsupported word length: " + length);
+        }
+
+        int common = 0;
+        while (common < length && common < previousLength && word.charAt(common) == previous[common]) {
+            common++;
+        }
+        if (common == length && common == previousLength) {
+            return this;
+        }
+        if (common < previousLength && (common == length || word.charAt(common) < previous[common])) {
+            throw new IllegalArgumentException("Words must be added in ascending order: " + word);
+        }
+
+        minimize(common);
+        Node node = path.get(common);
+        for (int i = common; i < length; i++) {
+            int letter = word.charAt(i) - 'A';
+            if (letter < 0 || letter >= 26) {
+                throw new IllegalArgumentException("Words may only contain A-Z: " + word);
+            }
+            Node next = new Node();
+            node.addChild(letter, next);
+            path.add(next);
+            previous[i] = word.charAt(i);
+            node = next;
+        }
+        node.terminal = true;
+        previousLength = length;
+        wordCount++;
+        return this;
+    }
+
+    /**
+     * Minimizes the remaining path and packs the graph into its array form.
+     */
+    public Dawg build() {
+        minimize(0);
+
+        // Assign array offsets breadth-first so the root lands at index 0
+        List<Node> order = new ArrayList<>();
+        root.offset = 0;
+        order.add(root);
+        int size = root.arrayLength();
+        for (int i = 0; i < order.size(); i++) {
+            Node node = order.get(i);
+            for (int c = 0; c < node.childCount; c++) {
+                Node child = node.children[c];
+                if (child.offset < 0) {
+                    child.offset = size;
+                    size += child.arrayLength();
+                    order.add(child);
+                }
+            }
+        }
+
+        int[] nodes = new int[size];
+        for (Node node : order) {
+            int header = node.terminal ? Dawg.TERMINAL : 0;
+            for (int c = 0; c < node.childCount; c++) {
+                header |= 1 << node.letters[c];
+                nodes[node.offset + 1 + c] = node.children[c].offset;
+            }
+            nodes[node.offset] = header;
+        }
+        return new Dawg(IntBuffer.wrap(nodes), wordCount);
+    }
+
+    /**
+     * Replaces or registers every node on the current path deeper than {@code depth}.
+     */
+    private void minimize(int depth) {
+        for (int i = path.size() - 1; i > depth; i--) {
+            Node child = path.remove(i);
+            Node parent = path.get(i - 1);
+            Node existing = register.putIfAbsent(child, child);
+            if (existing != null) {
+                parent.children[parent.childCount - 1] = existing;
+            }
+        }
+    }
+
+    /**
+     * Mutable graph node used only during construction.
+     */
+    private static final class Node {
+        byte[] letters = new byte[2];
+        Node[] children = new Node[2];
+        int childCount;
+        boolean terminal;
+        int offset = -1;
+
+        void addChild(int letter, Node child) {
+            if (childCount == letters.length) {
+                letters = Arrays.copyOf(letters, childCount * 2);
+                children = Arrays.copyOf(children, childCount * 2);
+            }
+            letters[childCount] = (byte) letter;
+            children[childCount] = child;
+            childCount++;
+        }
+
+        int arrayLength() {
+            return 1 + childCount;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof Node that)) return false;
+            if (terminal != that.terminal || childCount != that.childCount) return false;
+            for (int i = 0; i < childCount; i++) {
+                // Children are already unique, so identity comparison is enough
+                if (letters[i] != that.letters[i] || children[i] != that.children[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = terminal ? 1 : 0;
+            for (int i = 0; i < childCount; i++) {
+                hash = 31 * hash + letters[i];
+                hash = 31 * hash + System.identityHashCode(children[i]);
+            }
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package dev.newpower.lexicon;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lexicon that consults a {@link BloomFilter} before the exact lookup in another lexicon.
+ * The filter turns most non-words away after hashing the letters once. It only sees words
+ * checked through the validation API: puzzle generation walks the word graph and never
+ * looks whole words up. Counters record how often the filter rejects and how often it lets
+ * a non-word through, so its size can be tuned against the words clients check.
+ */
+public final class FilteredLexicon implements Lexicon {
+
+    private final Lexicon lexicon;
+    private final BloomFilter filter;
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    public FilteredLexicon(Lexicon lexicon, BloomFilter filter) {
+        this.lexicon = lexicon;
+        this.filter = filter;
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        queries.increment();
+        if (!filter.mightContain(word)) {
+            rejected.increment();
+            return false;
+        }
+        return confirm(lexicon.contains(word));
+    }
+
+    @Override
+    public boolean contains(char[] letters, int offset, int length) {
+        queries.increment();
+        if (!filter.mightContain(letters, offset, length)) {
+            rejected.increment();
+            return false;
+        }
+        return confirm(lexicon.contains(letters, offset, length));
+    }
+
+    private boolean confirm(boolean found) {
+        if (!found) {
+            falsePositives.increment();
+        }
+        return found;
+    }
+
+    @Override
+    public boolean containsPrefix(CharSequence prefix) {
+        return lexicon.containsPrefix(prefix);
+    }
+
+    @Override
+    public int size() {
+        return lexicon.size();
+    }
+
+    @Override
+    public void forEachWord(WordVisitor visitor) {
+        lexicon.forEachWord(visitor);
+    }
+
+    @Override
+    public boolean isOffHeap() {
+        return lexicon.isOffHeap();
+    }
+
+    /**
+     * Gets the lexicon that answers lookups the filter lets through.
+     */
+    public Lexicon getLexicon() {
+        return lexicon;
+    }
+
+    public BloomFilter getFilter() {
+        return filter;
+    }
+
+    /**
+     * Gets the number of lookups made.
+     */
+    public long getQueries() {
+        return queries.sum();
+    }
+
+    /**
+     * Gets the number of lookups the filter answered on its own.
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Gets the number of lookups the filter let through that were not words.
+     */
+    public long getFalsePositives() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Gets the share of non-words looked up so far that the filter failed to reject.
+     */
+    public double getObservedFalsePositiveRate() {
+        long misses = falsePositives.sum();
+        long nonWords = rejected.sum() + misses;
+        return nonWords == 0 ? 0 : (double) misses / nonWords;
+    }
+}
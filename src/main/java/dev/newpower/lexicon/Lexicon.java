@@ -0,0 +1,41 @@
+package dev.newpower.lexicon;
+
+/**
+ * Read-only set of valid words. Implementations trade lookup speed against memory;
+ * the dictionary service picks one by configuration.
+ */
+public interface Lexicon {
+
+    /**
+     * Checks if a word is in the lexicon. Letters may be in either case.
+     */
+    boolean contains(CharSequence word);
+
+    /**
+     * Checks if the letters {@code letters[offset, offset + length)} form a word.
+     * Letters may be in either case.
+     */
+    default boolean contains(char[] letters, int offset, int length) {
+        return contains(new String(letters, offset, length));
+    }
+
+    /**
+     * Checks if any word in the lexicon starts with the given letters.
+     */
+    boolean containsPrefix(CharSequence prefix);
+
+    /**
+     * Gets the number of words in the lexicon.
+     */
+    int size();
+
+    /**
+     * Visits every word in ascending order.
+     */
+    void forEachWord(WordVisitor visitor);
+
+    /**
+     * Checks if the lexicon's storage lives outside the Java heap.
+     */
+    boolean isOffHeap();
+}
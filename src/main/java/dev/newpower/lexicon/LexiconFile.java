@@ -0,0 +1,127 @@
+package dev.newpower.lexicon;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Compiled, memory-mappable form of a {@link WordGraph}.
+ * <p>
+ * The file is a fixed header followed by the packed forward and reverse node arrays,
+ * big-endian. The header records a checksum of the source word list so a snapshot built
+ * from an older list is detected as stale and ignored.
+ */
+public final class LexiconFile {
+
+    private static final int MAGIC = 0x57445A31; // "WDZ1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+
+    private LexiconFile() {
+    }
+
+    /**
+     * Writes a word graph to a snapshot file. The file is written next to the target and
+     * then moved into place, so readers never map a half-written snapshot.
+     */
+    public static void write(Path path, long sourceChecksum, WordGraph graph) throws IOException {
+        IntBuffer forward = graph.forward().nodeBuffer();
+        IntBuffer reverse = graph.reverse().nodeBuffer();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC);
+        header.putInt(FORMAT_VERSION);
+        header.putLong(sourceChecksum);
+        header.putInt(graph.forward().size());
+        header.putInt(forward.remaining());
+        header.putInt(graph.reverse().size());
+        header.putInt(reverse.remaining());
+        header.flip();
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.write(header);
+                writeInts(channel, forward);
+                writeInts(channel, reverse);
+                channel.force(true);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Maps a snapshot file read-only and returns a word graph that queries it in place.
+     * @return The mapped graph, or null if the file is missing, corrupt or was built from
+     *         a different word list
+     */
+    public static WordGraph map(Path path, long sourceChecksum) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION
+                    || buffer.getLong(8) != sourceChecksum) {
+                return null;
+            }
+            int forwardWords = buffer.getInt(16);
+            int forwardLength = buffer.getInt(20);
+            int reverseWords = buffer.getInt(24);
+            int reverseLength = buffer.getInt(28);
+            if (forwardLength <= 0 || reverseLength <= 0
+                    || size != HEADER_BYTES + 4L * forwardLength + 4L * reverseLength) {
+                return null;
+            }
+
+            IntBuffer ints = buffer.position(HEADER_BYTES).slice().asIntBuffer();
+            IntBuffer forward = ints.slice(0, forwardLength);
+            IntBuffer reverse = ints.slice(forwardLength, reverseLength);
+            return new WordGraph(new Dawg(forward, forwardWords), new Dawg(reverse, reverseWords));
+        }
+    }
+
+    /**
+     * Computes the checksum recorded in snapshot headers for a source word list.
+     */
+    public static long checksum(InputStream source) throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[64 * 1024];
+        int read;
+        while ((read = source.read(chunk)) != -1) {
+            crc.update(chunk, 0, read);
+        }
+        return crc.getValue();
+    }
+
+    private static void writeInts(FileChannel channel, IntBuffer ints) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(64 * 1024);
+        IntBuffer view = chunk.asIntBuffer();
+        while (ints.hasRemaining()) {
+            view.clear();
+            int count = Math.min(view.capacity(), ints.remaining());
+            view.put(ints.slice(ints.position(), count));
+            ints.position(ints.position() + count);
+            chunk.clear().limit(count * 4);
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package dev.newpower.lexicon;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable, named version of a word list together with every structure built from it.
+ * A request that picks up a snapshot keeps using it to the end, even if a newer version
+ * of the same list is published meanwhile; the old one is reclaimed once unreferenced.
+ */
+public final class LexiconSnapshot {
+
+    private final String name;
+    private final long version;
+    private final WordGraph wordGraph;
+    private final Lexicon lexicon;
+    private final PatternIndex patternIndex;
+    private final String source;
+    private final long loadDurationMillis;
+    private final Instant loadedAt;
+
+    public LexiconSnapshot(String name, long version, WordGraph wordGraph, Lexicon lexicon,
+                           PatternIndex patternIndex, String source, long loadDurationMillis) {
+        this.name = name;
+        this.version = version;
+        this.wordGraph = wordGraph;
+        this.lexicon = lexicon;
+        this.patternIndex = patternIndex;
+        this.source = source;
+        this.loadDurationMillis = loadDurationMillis;
+        this.loadedAt = Instant.now();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the version, a checksum of the source word list. Two snapshots with the same
+     * version hold the same words.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public WordGraph getWordGraph() {
+        return wordGraph;
+    }
+
+    public Lexicon getLexicon() {
+        return lexicon;
+    }
+
+    public PatternIndex getPatternIndex() {
+        return patternIndex;
+    }
+
+    /**
+     * Gets a description of where the words were loaded from.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    public long getLoadDurationMillis() {
+        return loadDurationMillis;
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public int size() {
+        return lexicon.size();
+    }
+
+    /**
+     * Checks if a word is in this snapshot.
+     */
+    public boolean isValidWord(CharSequence word) {
+        return lexicon.contains(word);
+    }
+
+    /**
+     * Checks if the letters {@code letters[offset, offset + length)} form a word.
+     */
+    public boolean isValidWord(char[] letters, int offset, int length) {
+        return lexicon.contains(letters, offset, length);
+    }
+
+    /**
+     * Finds words that can be spelled from a rack.
+     * @see RackSearch#findWords(Dawg, CharSequence, int, boolean)
+     */
+    public List<String> findWords(CharSequence rack, int minLength, boolean useAllTiles) {
+        return RackSearch.findWords(wordGraph.forward(), rack, minLength, useAllTiles);
+    }
+
+    /**
+     * Finds words matching a positional pattern.
+     * @see PatternIndex#match(CharSequence, int)
+     */
+    public List<String> findPattern(CharSequence pattern, int limit) {
+        return patternIndex.match(pattern, limit);
+    }
+
+    @Override
+    public String toString() {
+        return "LexiconSnapshot{name=" + name + ", version=" + Long.toHexString(version) + ", words=" + size() + "}";
+    }
+}
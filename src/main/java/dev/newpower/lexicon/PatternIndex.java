@@ -0,0 +1,181 @@
+package dev.newpower.lexicon;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Positional index over the words of a lexicon. Words of each length are numbered in
+ * ascending order, and for every (length, position, letter) there is a bitset of the words
+ * with that letter in that position. A pattern query ANDs one bitset per constrained
+ * position, so its cost depends on the number of words of that length, not on how many
+ * match. Words longer than the board is wide are not indexed.
+ */
+public final class PatternIndex {
+
+    /** Mask allowing every letter at a position. */
+    public static final int ANY_LETTER = (1 << 26) - 1;
+
+    /** Longest word indexed. */
+    public static final int MAX_LENGTH = 15;
+
+    private final int[] wordCounts;
+    private final byte[][] letters;
+    private final long[][][] bitsets;
+
+    private PatternIndex(int[] wordCounts, byte[][] letters, long[][][] bitsets) {
+        this.wordCounts = wordCounts;
+        this.letters = letters;
+        this.bitsets = bitsets;
+    }
+
+    /**
+     * Builds the index from every word in a graph.
+     */
+    public static PatternIndex build(Dawg dawg) {
+        int[] wordCounts = new int[MAX_LENGTH + 1];
+        dawg.forEachWord((word, length) -> {
+            if (length <= MAX_LENGTH) {
+                wordCounts[length]++;
+            }
+        });
+
+        byte[][] letters = new byte[wordCounts.length][];
+        long[][][] bitsets = new long[wordCounts.length][][];
+        for (int length = 1; length < wordCounts.length; length++) {
+            letters[length] = new byte[wordCounts[length] * length];
+            bitsets[length] = new long[length * 26][(wordCounts[length] + 63) >>> 6];
+        }
+
+        int[] nextId = new int[wordCounts.length];
+        dawg.forEachWord((word, length) -> {
+            if (length > MAX_LENGTH) {
+                return;
+            }
+            int id = nextId[length]++;
+            long bit = 1L << id;
+            for (int i = 0; i < length; i++) {
+                int letter = word[i] - 'A';
+                letters[length][id * length + i] = (byte) word[i];
+                bitsets[length][i * 26 + letter][id >>> 6] |= bit;
+            }
+        });
+        return new PatternIndex(wordCounts, letters, bitsets);
+    }
+
+    /**
+     * Finds words matching a pattern such as {@code "?A??E"}, where '?', '.' and '_'
+     * match any letter.
+     * @param limit Maximum number of words to return
+     */
+    public List<String> match(CharSequence pattern, int limit) {
+        return collect(matchBits(toMasks(pattern)), pattern.length(), limit);
+    }
+
+    /**
+     * Counts the words matching a pattern.
+     */
+    public int count(CharSequence pattern) {
+        long[] bits = matchBits(toMasks(pattern));
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Finds words whose letter at each position is in that position's allowed set.
+     * This is the query for filling a board slot whose squares carry cross-check masks.
+     * @param allowed One 26-bit letter mask per position; its length is the word length
+     * @param limit Maximum number of words to return
+     */
+    public List<String> match(int[] allowed, int limit) {
+        return collect(matchBits(allowed), allowed.length, limit);
+    }
+
+    /**
+     * Gets the number of indexed words of a given length.
+     */
+    public int wordCount(int length) {
+        return length > 0 && length < wordCounts.length ? wordCounts[length] : 0;
+    }
+
+    private long[] matchBits(int[] allowed) {
+        int length = allowed.length;
+        if (length == 0 || length >= wordCounts.length || wordCounts[length] == 0) {
+            return new long[0];
+        }
+
+        int n = wordCounts[length];
+        long[] result = new long[(n + 63) >>> 6];
+        Arrays.fill(result, -1L);
+        if ((n & 63) != 0) {
+            result[result.length - 1] = (1L << (n & 63)) - 1;
+        }
+
+        long[] union = null;
+        for (int pos = 0; pos < length; pos++) {
+            int mask = allowed[pos] & ANY_LETTER;
+            if (mask == ANY_LETTER) {
+                continue;
+            }
+            if (Integer.bitCount(mask) == 1) {
+                and(result, bitsets[length][pos * 26 + Integer.numberOfTrailingZeros(mask)]);
+                continue;
+            }
+            if (union == null) {
+                union = new long[result.length];
+            } else {
+                Arrays.fill(union, 0L);
+            }
+            while (mask != 0) {
+                int letter = Integer.numberOfTrailingZeros(mask);
+                mask &= mask - 1;
+                long[] bits = bitsets[length][pos * 26 + letter];
+                for (int i = 0; i < union.length; i++) {
+                    union[i] |= bits[i];
+                }
+            }
+            and(result, union);
+        }
+        return result;
+    }
+
+    private List<String> collect(long[] bits, int length, int limit) {
+        List<String> words = new ArrayList<>();
+        for (int i = 0; i < bits.length && words.size() < limit; i++) {
+            long word = bits[i];
+            while (word != 0 && words.size() < limit) {
+                int id = (i << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                words.add(new String(letters[length], id * length, length, StandardCharsets.US_ASCII));
+            }
+        }
+        return words;
+    }
+
+    private static void and(long[] target, long[] bits) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] &= bits[i];
+        }
+    }
+
+    private static int[] toMasks(CharSequence pattern) {
+        int[] masks = new int[pattern.length()];
+        for (int i = 0; i < masks.length; i++) {
+            char c = pattern.charAt(i);
+            if (c == '?' || c == '.' || c == '_') {
+                masks[i] = ANY_LETTER;
+            } else {
+                int letter = Dawg.letterIndex(c);
+                if (letter < 0) {
+                    throw new IllegalArgumentException("Invalid pattern character: '" + c + "'");
+                }
+                masks[i] = 1 << letter;
+            }
+        }
+        return masks;
+    }
+}
@@ -0,0 +1,122 @@
+package dev.newpower.lexicon;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Finds every word that can be spelled from a rack of tiles by walking a {@link Dawg}
+ * with the rack's letter counts. At each node only letters that are both on the rack
+ * and leave the node are tried, so whole subtrees are skipped as soon as the rack
+ * runs out. Blank tiles stand in for any letter and are reported in lower case.
+ */
+public final class RackSearch {
+
+    /** Longest rack accepted, matching the width of the board. */
+    public static final int MAX_RACK_SIZE = 15;
+
+    private final Dawg dawg;
+    private final int[] counts = new int[26];
+    private final char[] word = new char[MAX_RACK_SIZE];
+    private final Map<String, String> found = new LinkedHashMap<>();
+    private final int minLength;
+    private final boolean useAllTiles;
+    private int blanks;
+    private int rackSize;
+
+    private RackSearch(Dawg dawg, int minLength, boolean useAllTiles) {
+        this.dawg = dawg;
+        this.minLength = Math.max(1, minLength);
+        this.useAllTiles = useAllTiles;
+    }
+
+    /**
+     * Finds the words that can be spelled from a rack.
+     * @param rack Letters A-Z in any case; ' ', '?' and '_' are blanks
+     * @param minLength Shortest word to report
+     * @param useAllTiles If true, only report words that use every tile on the rack
+     * @return Matching words, longest first, with blank-played letters in lower case
+     */
+    public static List<String> findWords(Dawg dawg, CharSequence rack, int minLength, boolean useAllTiles) {
+        RackSearch search = new RackSearch(dawg, minLength, useAllTiles);
+        search.fillRack(rack);
+        search.extend(dawg.root(), 0);
+
+        List<String> words = new ArrayList<>(search.found.values());
+        words.sort(Comparator.comparingInt(String::length).reversed()
+                .thenComparing(String.CASE_INSENSITIVE_ORDER));
+        return words;
+    }
+
+    private void fillRack(CharSequence rack) {
+        if (rack.length() > MAX_RACK_SIZE) {
+            throw new IllegalArgumentException("Rack may hold at most " + MAX_RACK_SIZE + " tiles");
+        }
+        for (int i = 0; i < rack.length(); i++) {
+            char c = rack.charAt(i);
+            if (isBlank(c)) {
+                blanks++;
+            } else {
+                int letter = Dawg.letterIndex(c);
+                if (letter < 0) {
+                    throw new IllegalArgumentException("Invalid rack tile: '" + c + "'");
+                }
+                counts[letter]++;
+            }
+        }
+        rackSize = rack.length();
+    }
+
+    private void extend(int node, int depth) {
+        if (depth >= minLength && dawg.isTerminal(node) && (!useAllTiles || depth == rackSize)) {
+            String key = String.valueOf(word, 0, depth).toUpperCase();
+            found.putIfAbsent(key, String.valueOf(word, 0, depth));
+        }
+        if (depth == rackSize) {
+            return;
+        }
+
+        int candidates = dawg.childMask(node);
+        if (blanks == 0) {
+            candidates &= rackMask();
+        }
+        while (candidates != 0) {
+            int letter = Integer.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            int next = dawg.child(node, letter);
+
+            // Prefer a real tile; fall back to a blank standing in for the letter
+            if (counts[letter] > 0) {
+                counts[letter]--;
+                word[depth] = (char) ('A' + letter);
+                extend(next, depth + 1);
+                counts[letter]++;
+            }
+            if (blanks > 0) {
+                blanks--;
+                word[depth] = (char) ('a' + letter);
+                extend(next, depth + 1);
+                blanks++;
+            }
+        }
+    }
+
+    private int rackMask() {
+        int mask = 0;
+        for (int i = 0; i < 26; i++) {
+            if (counts[i] > 0) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Checks if a rack character represents a blank tile.
+     */
+    public static boolean isBlank(char c) {
+        return c == ' ' || c == '?' || c == '_';
+    }
+}
@@ -0,0 +1,66 @@
+package dev.newpower.lexicon;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Lexicon holding one {@link String} per word in a {@link HashSet}, plus a sorted array of
+ * the same strings for prefix checks and ordered iteration. Lookups are the fastest of the
+ * representations but it costs tens of megabytes of heap for a full word list.
+ */
+public final class StringSetLexicon implements Lexicon {
+
+    private final Set<String> words;
+    private final String[] sorted;
+
+    private StringSetLexicon(String[] sorted) {
+        this.sorted = sorted;
+        this.words = new HashSet<>(Arrays.asList(sorted));
+    }
+
+    /**
+     * Copies every word of another lexicon.
+     */
+    public static StringSetLexicon copyOf(Lexicon source) {
+        String[] sorted = new String[source.size()];
+        int[] next = new int[1];
+        source.forEachWord((letters, length) -> sorted[next[0]++] = new String(letters, 0, length));
+        return new StringSetLexicon(Arrays.copyOf(sorted, next[0]));
+    }
+
+    @Override
+    public boolean contains(CharSequence word) {
+        return words.contains(word.toString().toUpperCase());
+    }
+
+    @Override
+    public boolean containsPrefix(CharSequence prefix) {
+        String key = prefix.toString().toUpperCase();
+        int index = Arrays.binarySearch(sorted, key);
+        if (index >= 0) {
+            return true;
+        }
+        int insertion = -index - 1;
+        return insertion < sorted.length && sorted[insertion].startsWith(key);
+    }
+
+    @Override
+    public int size() {
+        return sorted.length;
+    }
+
+    @Override
+    public void forEachWord(WordVisitor visitor) {
+        char[] buffer = new char[64];
+        for (String word : sorted) {
+            word.getChars(0, word.length(), buffer, 0);
+            visitor.visit(buffer, word.length());
+        }
+    }
+
+    @Override
+    public boolean isOffHeap() {
+        return false;
+    }
+}
@@ -0,0 +1,142 @@
+package dev.newpower.lexicon;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Move-generation lexicon made of a forward {@link Dawg} and a {@link Dawg} of every word
+ * spelled backwards. Together they answer "which letters can go here" questions by walking
+ * one letter at a time, so callers can prune dead branches instead of testing whole
+ * candidate strings.
+ */
+public final class WordGraph {
+
+    private final Dawg forward;
+    private final Dawg reverse;
+
+    public WordGraph(Dawg forward, Dawg reverse) {
+        this.forward = forward;
+        this.reverse = reverse;
+    }
+
+    /**
+     * Builds both graphs from a collection of upper-case words in any order.
+     * The reverse graph is built on the common fork-join pool while the forward
+     * graph is built on the calling thread.
+     */
+    public static WordGraph build(Collection<String> words) {
+        String[] sorted = words.toArray(new String[0]);
+        Arrays.parallelSort(sorted);
+
+        CompletableFuture<Dawg> reverse = CompletableFuture.supplyAsync(() -> {
+            String[] reversed = new String[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                reversed[i] = new StringBuilder(sorted[i]).reverse().toString();
+            }
+            Arrays.parallelSort(reversed);
+            return buildDawg(reversed);
+        });
+        Dawg forward = buildDawg(sorted);
+        return new WordGraph(forward, reverse.join());
+    }
+
+    private static Dawg buildDawg(String[] sortedWords) {
+        DawgBuilder builder = new DawgBuilder();
+        for (String word : sortedWords) {
+            builder.add(word);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets the graph of words read left to right.
+     */
+    public Dawg forward() {
+        return forward;
+    }
+
+    /**
+     * Gets the graph of words read right to left.
+     */
+    public Dawg reverse() {
+        return reverse;
+    }
+
+    /**
+     * Copies both graphs into direct memory outside the Java heap.
+     */
+    public WordGraph toOffHeap() {
+        return new WordGraph(forward.toOffHeap(), reverse.toOffHeap());
+    }
+
+    /**
+     * Checks if a word is in the lexicon.
+     */
+    public boolean contains(CharSequence word) {
+        return forward.contains(word);
+    }
+
+    /**
+     * Gets the number of words in the lexicon.
+     */
+    public int size() {
+        return forward.size();
+    }
+
+    /**
+     * Gets the letters that complete {@code before + letter + after} as a word.
+     * Either side may be empty; this is the cross-check set for a square lying
+     * between two runs of tiles.
+     * @return A bit mask of letters (bit 0 = A, bit 25 = Z)
+     */
+    public int crossCheck(CharSequence before, CharSequence after) {
+        int node = forward.walk(forward.root(), before);
+        int candidates = forward.childMask(node);
+        int allowed = 0;
+        while (candidates != 0) {
+            int letter = Integer.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            if (forward.isTerminal(forward.walk(forward.child(node, letter), after))) {
+                allowed |= 1 << letter;
+            }
+        }
+        return allowed;
+    }
+
+    /**
+     * Gets the letters that can directly follow a prefix on the way to some word.
+     */
+    public int nextLetters(CharSequence prefix) {
+        return forward.childMask(forward.walk(forward.root(), prefix));
+    }
+
+    /**
+     * Gets the letters that can directly precede a suffix on the way to some word.
+     */
+    public int previousLetters(CharSequence suffix) {
+        int node = reverse.root();
+        for (int i = suffix.length() - 1; i >= 0 && node != Dawg.NONE; i--) {
+            node = reverse.child(node, suffix.charAt(i));
+        }
+        return reverse.childMask(node);
+    }
+
+    /**
+     * Checks if any word starts with the given letters.
+     */
+    public boolean isPrefix(CharSequence prefix) {
+        return forward.containsPrefix(prefix);
+    }
+
+    /**
+     * Checks if any word ends with the given letters.
+     */
+    public boolean isSuffix(CharSequence suffix) {
+        int node = reverse.root();
+        for (int i = suffix.length() - 1; i >= 0 && node != Dawg.NONE; i--) {
+            node = reverse.child(node, suffix.charAt(i));
+        }
+        return node != Dawg.NONE;
+    }
+}
@@ -0,0 +1,144 @@
+package dev.newpower.lexicon;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Parses a plain-text word list (one word per line) in parallel. The whole list is read
+ * into memory, split into ranges on line boundaries and parsed on a fork-join pool. Each
+ * line is trimmed, upper-cased and checked byte by byte, so no regex or intermediate
+ * line strings are involved. Lines that are not purely A-Z are skipped, and so are words
+ * longer than {@link #MAX_WORD_LENGTH}, with a warning giving how many were dropped.
+ */
+public final class WordListParser {
+
+    /** Longest word kept; the word graph builders hold a word in a buffer of this size. */
+    public static final int MAX_WORD_LENGTH = 64;
+
+    private static final Logger log = LoggerFactory.getLogger(WordListParser.class);
+
+    /** Ranges smaller than this are parsed on a single thread. */
+    private static final int SPLIT_THRESHOLD = 128 * 1024;
+
+    private WordListParser() {
+    }
+
+    /**
+     * Parses a word list on the common fork-join pool.
+     * @param minLength Shortest word to keep
+     * @return The upper-case words in file order
+     */
+    public static List<String> parse(InputStream source, int minLength) throws IOException {
+        return parse(source, minLength, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses a word list on the given pool.
+     */
+    public static List<String> parse(InputStream source, int minLength, ForkJoinPool pool) throws IOException {
+        byte[] data = source.readAllBytes();
+        AtomicInteger tooLong = new AtomicInteger();
+        List<String> words = pool.invoke(new ParseTask(data, 0, data.length, minLength, tooLong));
+        if (tooLong.get() > 0) {
+            log.warn("Skipped {} word list lines longer than {} letters", tooLong.get(), MAX_WORD_LENGTH);
+        }
+        return words;
+    }
+
+    private static final class ParseTask extends RecursiveTask<List<String>> {
+        private final byte[] data;
+        private final int start;
+        private final int end;
+        private final int minLength;
+        private final AtomicInteger tooLong;
+
+        ParseTask(byte[] data, int start, int end, int minLength, AtomicInteger tooLong) {
+            this.data = data;
+            this.start = start;
+            this.end = end;
+            this.minLength = minLength;
+            this.tooLong = tooLong;
+        }
+
+        @Override
+        protected List<String> compute() {
+            if (end - start <= SPLIT_THRESHOLD) {
+                return parseRange();
+            }
+
+            // Split just after the first line break past the midpoint
+            int split = start + (end - start) / 2;
+            while (split < end && data[split - 1] != '\n') {
+                split++;
+            }
+            if (split >= end) {
+                return parseRange();
+            }
+
+            ParseTask left = new ParseTask(data, start, split, minLength, tooLong);
+            left.fork();
+            List<String> right = new ParseTask(data, split, end, minLength, tooLong).compute();
+            List<String> words = left.join();
+            words.addAll(right);
+            return words;
+        }
+
+        private List<String> parseRange() {
+            List<String> words = new ArrayList<>((end - start) / 8);
+            byte[] word = new byte[MAX_WORD_LENGTH];
+            int skipped = 0;
+            int lineStart = start;
+            while (lineStart < end) {
+                int lineEnd = lineStart;
+                while (lineEnd < end && data[lineEnd] != '\n') {
+                    lineEnd++;
+                }
+
+                int from = lineStart;
+                int to = lineEnd;
+                while (from < to && isWhitespace(data[from])) {
+                    from++;
+                }
+                while (to > from && isWhitespace(data[to - 1])) {
+                    to--;
+                }
+
+                int length = to - from;
+                if (length > word.length) {
+                    skipped++;
+                } else if (length >= minLength) {
+                    boolean valid = true;
+                    for (int i = 0; i < length && valid; i++) {
+                        byte b = data[from + i];
+                        if (b >= 'a' && b <= 'z') {
+                            b -= 'a' - 'A';
+                        }
+                        word[i] = b;
+                        valid = b >= 'A' && b <= 'Z';
+                    }
+                    if (valid) {
+                        words.add(new String(word, 0, length, StandardCharsets.US_ASCII));
+                    }
+                }
+                lineStart = lineEnd + 1;
+            }
+            if (skipped > 0) {
+                tooLong.addAndGet(skipped);
+            }
+            return words;
+        }
+
+        private static boolean isWhitespace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+    }
+}
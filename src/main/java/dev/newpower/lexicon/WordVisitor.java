@@ -0,0 +1,15 @@
+package dev.newpower.lexicon;
+
+/**
+ * Callback for walking the words of a lexicon without allocating a string per word.
+ */
+@FunctionalInterface
+public interface WordVisitor {
+
+    /**
+     * Called once per word.
+     * @param letters Buffer holding the word's upper-case letters; only valid during the call
+     * @param length Number of letters in the word
+     */
+    void visit(char[] letters, int length);
+}
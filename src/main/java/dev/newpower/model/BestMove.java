@@ -0,0 +1,13 @@
+package dev.newpower.model;
+
+/**
+ * The highest-scoring move a puzzle's rack can make on its board.
+ * @param word The whole word formed along the line of play, including tiles already on the board
+ * @param row Row of the first letter
+ * @param col Column of the first letter
+ * @param horizontal True if the word reads left to right, false if top to bottom
+ * @param tilesPlaced Number of tiles taken from the rack
+ * @param score Points scored, counting cross words and the bonus for using all seven tiles
+ */
+public record BestMove(String word, int row, int col, boolean horizontal, int tilesPlaced, int score) {
+}
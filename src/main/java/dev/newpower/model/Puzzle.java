@@ -0,0 +1,30 @@
+package dev.newpower.model;
+
+import java.util.List;
+
+/**
+ * A generated puzzle in compact form: the board as one string per row, with '.' for an
+ * empty square, and the player's rack as a string, with '?' for a blank.
+ * @param seed Seed the puzzle was generated from
+ * @param lexicon Name of the word list the placed words come from
+ * @param board The 15 rows of the board, top to bottom
+ * @param rack The tiles left for the player
+ * @param placedTileCount Number of tiles on the board
+ * @param partial Whether generation was stopped before the board was finished
+ * @param bestMove The highest-scoring move for the rack, found when the puzzle was
+ *                 generated, or null if the rack has none
+ */
+public record Puzzle(long seed, String lexicon, List<String> board, String rack, int placedTileCount, boolean partial,
+                     BestMove bestMove) {
+
+    public Puzzle {
+        board = List.copyOf(board);
+    }
+
+    /**
+     * Creates a puzzle whose rack has no move.
+     */
+    public Puzzle(long seed, String lexicon, List<String> board, String rack, int placedTileCount, boolean partial) {
+        this(seed, lexicon, board, rack, placedTileCount, partial, null);
+    }
+}
@@ -0,0 +1,407 @@
+package dev.newpower.model;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import dev.newpower.cbor.CborWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Immutable puzzle as served to clients: a {@link Puzzle} and its ID in the store, with
+ * the JSON response encoded once when the snapshot is created.
+ * <p>
+ * The JSON has the same shape the web client has always read: a board of 15 rows of
+ * cells with their letter, points and multipliers, and the rack as a list of tiles. Each
+ * cell is written from precomputed fragments, one per letter and one per square for its
+ * multipliers, so encoding a board is a series of raw writes. Serving the snapshot again,
+ * for example from {@code /api/puzzle/current}, only copies the cached bytes.
+ * <p>
+ * The CBOR form is encoded on first use and cached the same way. It sends the board as
+ * one string per row, like {@link Puzzle}, and names the premium square layout instead
+ * of repeating the multipliers in every cell. Both forms carry the puzzle's best move
+ * and its score, when known.
+ * <p>
+ * Each snapshot has a version, a hash of its JSON, from which the strong entity tags of
+ * its representations are made: {@code "version"} for JSON, and the version with a
+ * suffix for the gzip-compressed JSON and for CBOR. A conditional request can then be
+ * answered from the tag alone.
+ */
+@JsonSerialize(using = PuzzleSnapshot.Serializer.class)
+public final class PuzzleSnapshot {
+
+    /** Name of the premium square layout every board uses. */
+    public static final String LAYOUT = "standard";
+
+    private static final int BOARD_SIZE = 15;
+    private static final int TOTAL_TILES = 100;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    // Opening of a cell for each letter A-Z, and for an empty square at index 26
+    private static final String[] CELL_STARTS = new String[27];
+    // Multipliers and end of the cell for each square, row-major
+    private static final String[] CELL_ENDS = new String[BOARD_SIZE * BOARD_SIZE];
+
+    static {
+        for (char letter = 'A'; letter <= 'Z'; letter++) {
+            CELL_STARTS[letter - 'A'] = "{\"letter\":\"" + letter + "\",\"points\":" + ScrabbleBag.getPointValue(letter)
+                    + ",\"hasTile\":true,";
+        }
+        CELL_STARTS[26] = "{\"hasTile\":false,";
+        // The premium layout is the same on every board
+        ScrabbleBoard layout = new ScrabbleBoard();
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                CELL_ENDS[row * BOARD_SIZE + col] = "\"wordMultiplier\":" + layout.getWordMultiplier(row, col)
+                        + ",\"letterMultiplier\":" + layout.getLetterMultiplier(row, col) + "}";
+            }
+        }
+    }
+
+    private final long id;
+    private final Puzzle puzzle;
+    private final byte[] json;
+    private final String version;
+    private volatile byte[] cbor;
+    private volatile byte[] gzippedJson;
+
+    /**
+     * Creates the snapshot of a puzzle and encodes its JSON.
+     * @param id The puzzle's ID in the store, or 0 if it was not stored
+     */
+    public PuzzleSnapshot(long id, Puzzle puzzle) {
+        this.id = id;
+        this.puzzle = Objects.requireNonNull(puzzle);
+        this.json = encode(id, puzzle);
+        this.version = hash(json);
+    }
+
+    /**
+     * Gets the puzzle's ID in the store, or 0 if it was not stored.
+     */
+    public long getId() {
+        return id;
+    }
+
+    public Puzzle getPuzzle() {
+        return puzzle;
+    }
+
+    public int getPlacedTileCount() {
+        return puzzle.placedTileCount();
+    }
+
+    public int getRemainingTileCount() {
+        return TOTAL_TILES - puzzle.placedTileCount();
+    }
+
+    public boolean isPartial() {
+        return puzzle.partial();
+    }
+
+    /**
+     * Gets the highest-scoring move for the rack, or null if it has none.
+     */
+    public BestMove getBestMove() {
+        return puzzle.bestMove();
+    }
+
+    /**
+     * Gets the score of the best move, or 0 if the rack has no move.
+     */
+    public int getBestScore() {
+        return puzzle.bestMove() != null ? puzzle.bestMove().score() : 0;
+    }
+
+    /**
+     * Gets the tiles left for the player.
+     */
+    public List<ScrabbleTile> getRack() {
+        List<ScrabbleTile> rack = new ArrayList<>(puzzle.rack().length());
+        for (int i = 0; i < puzzle.rack().length(); i++) {
+            rack.add(rackTile(puzzle.rack().charAt(i)));
+        }
+        return rack;
+    }
+
+    /**
+     * Gets the length of the encoded JSON in bytes.
+     */
+    public int getJsonLength() {
+        return json.length;
+    }
+
+    /**
+     * Writes the encoded JSON.
+     */
+    public void writeJson(OutputStream out) throws IOException {
+        out.write(json);
+    }
+
+    /**
+     * Gets a copy of the encoded JSON.
+     */
+    public byte[] toJson() {
+        return json.clone();
+    }
+
+    /**
+     * Gets the version of this snapshot: the same for snapshots with the same JSON, and
+     * different otherwise.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Gets the strong entity tag of the JSON representation, quoted.
+     */
+    public String getETag() {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Gets the strong entity tag of another representation, quoted.
+     * @param variant Name of the representation, such as {@code "gzip"} or {@code "cbor"}
+     */
+    public String getETag(String variant) {
+        return "\"" + version + "-" + variant + "\"";
+    }
+
+    /**
+     * Finds the entity tag in an {@code If-None-Match} header that names a representation
+     * of this snapshot. Tags are compared weakly, as that header requires.
+     * @return The matching tag, or null if there is none
+     */
+    public String matchETag(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return null;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.equals("*")) {
+                return getETag();
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.length() > version.length() + 1 && tag.startsWith("\"" + version)
+                    && (tag.charAt(version.length() + 1) == '"' || tag.charAt(version.length() + 1) == '-')) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Writes the gzip-compressed JSON, compressing it on the first call.
+     */
+    public void writeGzippedJson(OutputStream out) throws IOException {
+        out.write(getGzippedJson());
+    }
+
+    /**
+     * Gets the length of the gzip-compressed JSON in bytes, compressing it on the first call.
+     */
+    public int getGzippedJsonLength() {
+        return getGzippedJson().length;
+    }
+
+    private byte[] getGzippedJson() {
+        byte[] bytes = gzippedJson;
+        if (bytes == null) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            bytes = out.toByteArray();
+            gzippedJson = bytes;
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the compact CBOR form, encoding it on the first call.
+     */
+    public void writeCbor(OutputStream out) throws IOException {
+        out.write(getCbor());
+    }
+
+    /**
+     * Gets the length of the CBOR form in bytes, encoding it on the first call.
+     */
+    public int getCborLength() {
+        return getCbor().length;
+    }
+
+    private byte[] getCbor() {
+        byte[] bytes = cbor;
+        if (bytes == null) {
+            // Encoding twice in a race gives the same bytes, so no lock is needed
+            bytes = encodeCbor();
+            cbor = bytes;
+        }
+        return bytes;
+    }
+
+    private byte[] encodeCbor() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+        try {
+            CborWriter writer = new CborWriter(out);
+            writer.writeMapStart(id > 0 ? 11 : 10);
+            if (id > 0) {
+                writer.writeField("id", id);
+            }
+            writer.writeString("board").writeArrayStart(puzzle.board().size());
+            for (String row : puzzle.board()) {
+                writer.writeString(row);
+            }
+            writer.writeField("layout", LAYOUT)
+                    .writeField("rack", puzzle.rack())
+                    .writeField("placedTileCount", puzzle.placedTileCount())
+                    .writeField("remainingTileCount", TOTAL_TILES - puzzle.placedTileCount())
+                    .writeField("lexicon", puzzle.lexicon())
+                    .writeField("seed", puzzle.seed())
+                    .writeField("partial", puzzle.partial())
+                    .writeField("bestScore", getBestScore());
+            writer.writeString("bestMove");
+            BestMove bestMove = puzzle.bestMove();
+            if (bestMove == null) {
+                writer.writeNull();
+            } else {
+                writer.writeMapStart(5)
+                        .writeField("word", bestMove.word())
+                        .writeField("row", bestMove.row())
+                        .writeField("col", bestMove.col())
+                        .writeField("horizontal", bestMove.horizontal())
+                        .writeField("tilesPlaced", bestMove.tilesPlaced());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] encode(long id, Puzzle puzzle) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        try (JsonGenerator generator = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            if (id > 0) {
+                generator.writeNumberField("id", id);
+            }
+
+            generator.writeObjectFieldStart("board");
+            generator.writeNumberField("size", BOARD_SIZE);
+            generator.writeArrayFieldStart("cells");
+            for (int row = 0; row < BOARD_SIZE; row++) {
+                String letters = puzzle.board().get(row);
+                generator.writeStartArray();
+                for (int col = 0; col < BOARD_SIZE; col++) {
+                    char letter = letters.charAt(col);
+                    generator.writeRawValue(CELL_STARTS[letter == '.' ? 26 : letter - 'A']);
+                    generator.writeRaw(CELL_ENDS[row * BOARD_SIZE + col]);
+                }
+                generator.writeEndArray();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+
+            generator.writeArrayFieldStart("remainingTiles");
+            for (int i = 0; i < puzzle.rack().length(); i++) {
+                ScrabbleTile tile = rackTile(puzzle.rack().charAt(i));
+                generator.writeStartObject();
+                generator.writeStringField("letter", String.valueOf(tile.getLetter()));
+                generator.writeNumberField("pointValue", tile.getPointValue());
+                generator.writeNumberField("count", tile.getCount());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+
+            generator.writeNumberField("placedTileCount", puzzle.placedTileCount());
+            generator.writeNumberField("remainingTileCount", TOTAL_TILES - puzzle.placedTileCount());
+            generator.writeStringField("lexicon", puzzle.lexicon());
+            generator.writeNumberField("seed", puzzle.seed());
+            generator.writeBooleanField("partial", puzzle.partial());
+            BestMove bestMove = puzzle.bestMove();
+            generator.writeNumberField("bestScore", bestMove != null ? bestMove.score() : 0);
+            if (bestMove == null) {
+                generator.writeNullField("bestMove");
+            } else {
+                generator.writeObjectFieldStart("bestMove");
+                generator.writeStringField("word", bestMove.word());
+                generator.writeNumberField("row", bestMove.row());
+                generator.writeNumberField("col", bestMove.col());
+                generator.writeBooleanField("horizontal", bestMove.horizontal());
+                generator.writeNumberField("tilesPlaced", bestMove.tilesPlaced());
+                generator.writeEndObject();
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ScrabbleTile rackTile(char letter) {
+        return ScrabbleBag.tileFor(letter == '?' ? ' ' : letter);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || getClass() != obj.getClass()) return false;
+        PuzzleSnapshot that = (PuzzleSnapshot) obj;
+        return id == that.id && puzzle.equals(that.puzzle);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, puzzle);
+    }
+
+    @Override
+    public String toString() {
+        return "PuzzleSnapshot{id=" + id + ", seed=" + puzzle.seed() + ", lexicon=" + puzzle.lexicon()
+                + ", placedTileCount=" + puzzle.placedTileCount() + "}";
+    }
+
+    /**
+     * Writes the cached JSON wherever Jackson serializes a snapshot, such as in an event stream.
+     */
+    static final class Serializer extends StdSerializer<PuzzleSnapshot> {
+
+        Serializer() {
+            super(PuzzleSnapshot.class);
+        }
+
+        @Override
+        public void serialize(PuzzleSnapshot snapshot, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeRawValue(new String(snapshot.json, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package dev.newpower.model;
 
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * Represents the bag of Scrabble tiles with all 100 tiles, their point values, and counts.
  * Provides functionality for random tile selection and hand management.
+ * <p>
+ * The bag is a histogram of how many of each letter remain (index 26 for blanks) rather
+ * than a list of tile objects. Tiles of the same letter are interchangeable, so every
+ * tile handed out is one shared instance per letter. Drawing, returning and removing a
+ * letter only update a count, and nothing is allocated when the bag is reset.
  */
 public class ScrabbleBag {
-    private final List<ScrabbleTile> tiles;
-    private final Random random;
-    
+    private static final int BLANK = 26;
+    private static final int LETTER_KINDS = 27;
+
+    private final int[] counts = new int[LETTER_KINDS];
+    private int remaining;
+    private final RandomGenerator random;
+
     // Standard Scrabble tile distribution and point values
     private static final Map<Character, Integer> LETTER_POINTS = Map.ofEntries(
         Map.entry('A', 1), Map.entry('B', 3), Map.entry('C', 3), Map.entry('D', 2),
@@ -20,7 +30,7 @@ public class ScrabbleBag {
         Map.entry('U', 1), Map.entry('V', 4), Map.entry('W', 4), Map.entry('X', 8),
         Map.entry('Y', 4), Map.entry('Z', 10), Map.entry(' ', 0)  // Blank tiles worth 0 points
     );
-    
+
     // Standard Scrabble tile counts (100 tiles total including 2 blank tiles)
     private static final Map<Character, Integer> LETTER_COUNTS = Map.ofEntries(
         Map.entry('A', 9), Map.entry('B', 2), Map.entry('C', 2), Map.entry('D', 4),
@@ -32,43 +42,56 @@ public class ScrabbleBag {
         Map.entry('Y', 2), Map.entry('Z', 1), Map.entry(' ', 2)  // 2 blank tiles
     );
 
+    // One shared tile and its starting count per letter, indexed like the histogram
+    private static final ScrabbleTile[] TILES = new ScrabbleTile[LETTER_KINDS];
+    private static final int[] INITIAL_COUNTS = new int[LETTER_KINDS];
+
+    static {
+        int total = 0;
+        for (int i = 0; i < LETTER_KINDS; i++) {
+            char letter = i == BLANK ? ' ' : (char) ('A' + i);
+            INITIAL_COUNTS[i] = LETTER_COUNTS.get(letter);
+            TILES[i] = new ScrabbleTile(letter, LETTER_POINTS.get(letter), INITIAL_COUNTS[i]);
+            total += INITIAL_COUNTS[i];
+        }
+
+        // Verify we have exactly 100 tiles
+        if (total != 100) {
+            throw new IllegalStateException("Bag should contain exactly 100 tiles, but has: " + total);
+        }
+    }
+
     public ScrabbleBag() {
-        this.tiles = new ArrayList<>();
-        this.random = new Random();
-        initializeBag();
+        this(new Random());
     }
 
     /**
-     * Initializes the bag with all 100 Scrabble tiles according to standard distribution.
+     * Creates a full bag that draws tiles using the given source of randomness.
      */
-    private void initializeBag() {
-        for (Map.Entry<Character, Integer> entry : LETTER_COUNTS.entrySet()) {
-            char letter = entry.getKey();
-            int count = entry.getValue();
-            int points = LETTER_POINTS.get(letter);
-            
-            for (int i = 0; i < count; i++) {
-                tiles.add(new ScrabbleTile(letter, points, count));
-            }
-        }
-        
-        // Verify we have exactly 100 tiles
-        if (tiles.size() != 100) {
-            throw new IllegalStateException("Bag should contain exactly 100 tiles, but has: " + tiles.size());
-        }
+    public ScrabbleBag(RandomGenerator random) {
+        this.random = random;
+        reset();
     }
 
     /**
-     * Draws a random tile from the bag.
+     * Draws a random tile from the bag. Every tile left is equally likely.
      * @return A random ScrabbleTile, or null if the bag is empty
      */
     public ScrabbleTile drawTile() {
-        if (tiles.isEmpty()) {
+        if (remaining == 0) {
             return null;
         }
-        
-        int index = random.nextInt(tiles.size());
-        return tiles.remove(index);
+
+        // Weighted pick over the 27 letter counts
+        int target = random.nextInt(remaining);
+        int index = 0;
+        while (target >= counts[index]) {
+            target -= counts[index];
+            index++;
+        }
+        counts[index]--;
+        remaining--;
+        return TILES[index];
     }
 
     /**
@@ -77,16 +100,13 @@ public class ScrabbleBag {
      * @return A list of drawn tiles (may be smaller than requested if bag is nearly empty)
      */
     public List<ScrabbleTile> drawTiles(int count) {
-        List<ScrabbleTile> drawnTiles = new ArrayList<>();
-        int tilesToDraw = Math.min(count, tiles.size());
-        
+        int tilesToDraw = Math.min(count, remaining);
+        List<ScrabbleTile> drawnTiles = new ArrayList<>(tilesToDraw);
+
         for (int i = 0; i < tilesToDraw; i++) {
-            ScrabbleTile tile = drawTile();
-            if (tile != null) {
-                drawnTiles.add(tile);
-            }
+            drawnTiles.add(drawTile());
         }
-        
+
         return drawnTiles;
     }
 
@@ -96,7 +116,9 @@ public class ScrabbleBag {
      */
     public void returnTiles(List<ScrabbleTile> tilesToReturn) {
         if (tilesToReturn != null) {
-            tiles.addAll(tilesToReturn);
+            for (ScrabbleTile tile : tilesToReturn) {
+                returnTile(tile);
+            }
         }
     }
 
@@ -106,7 +128,11 @@ public class ScrabbleBag {
      */
     public void returnTile(ScrabbleTile tile) {
         if (tile != null) {
-            tiles.add(tile);
+            int index = indexOf(tile.getLetter());
+            if (index >= 0) {
+                counts[index]++;
+                remaining++;
+            }
         }
     }
 
@@ -116,13 +142,62 @@ public class ScrabbleBag {
      * @return The removed tile, or null if not found
      */
     public ScrabbleTile removeTileWithLetter(char letter) {
-        for (int i = 0; i < tiles.size(); i++) {
-            ScrabbleTile tile = tiles.get(i);
-            if (tile.getLetter() == letter) {
-                return tiles.remove(i);
+        int index = indexOf(letter);
+        if (index < 0 || counts[index] == 0) {
+            return null;
+        }
+        counts[index]--;
+        remaining--;
+        return TILES[index];
+    }
+
+    /**
+     * Checks if the bag holds enough tiles to spell a word without using blanks.
+     * Does not allocate.
+     */
+    public boolean canSpell(CharSequence word) {
+        for (int i = 0; i < word.length(); i++) {
+            int index = indexOf(word.charAt(i));
+            if (index < 0 || index == BLANK) {
+                return false;
+            }
+            // Count each letter once, at its first occurrence
+            boolean first = true;
+            for (int j = 0; j < i && first; j++) {
+                first = indexOf(word.charAt(j)) != index;
+            }
+            if (first) {
+                int needed = 1;
+                for (int j = i + 1; j < word.length(); j++) {
+                    if (indexOf(word.charAt(j)) == index) {
+                        needed++;
+                    }
+                }
+                if (needed > counts[index]) {
+                    return false;
+                }
             }
         }
-        return null;
+        return true;
+    }
+
+    /**
+     * Gets the number of tiles of a letter left in the bag.
+     * @param letter The letter, or ' ' for blanks
+     */
+    public int getCount(char letter) {
+        int index = indexOf(letter);
+        return index < 0 ? 0 : counts[index];
+    }
+
+    /**
+     * Copies the number of each letter A-Z left in the bag into an array. Blanks are not included.
+     * @param letterCounts Array of at least 26 counts to fill (index 0 = A)
+     * @return The same array
+     */
+    public int[] getLetterCounts(int[] letterCounts) {
+        System.arraycopy(counts, 0, letterCounts, 0, BLANK);
+        return letterCounts;
     }
 
     /**
@@ -130,7 +205,7 @@ public class ScrabbleBag {
      * @return The number of tiles left
      */
     public int getRemainingTiles() {
-        return tiles.size();
+        return remaining;
     }
 
     /**
@@ -138,7 +213,7 @@ public class ScrabbleBag {
      * @return true if no tiles remain, false otherwise
      */
     public boolean isEmpty() {
-        return tiles.isEmpty();
+        return remaining == 0;
     }
 
     /**
@@ -159,31 +234,57 @@ public class ScrabbleBag {
         return LETTER_COUNTS.getOrDefault(Character.toUpperCase(letter), 0);
     }
 
+    /**
+     * Gets the shared tile instance for a letter.
+     * @param letter The letter, or ' ' for a blank
+     * @return The tile, or null if the letter is not valid
+     */
+    public static ScrabbleTile tileFor(char letter) {
+        int index = indexOf(letter);
+        return index < 0 ? null : TILES[index];
+    }
+
     /**
      * Gets a copy of all remaining tiles (for debugging/information purposes).
-     * @return A new list containing all remaining tiles
+     * @return A new list containing all remaining tiles, grouped by letter
      */
     public List<ScrabbleTile> getRemainingTilesList() {
-        return new ArrayList<>(tiles);
+        List<ScrabbleTile> tiles = new ArrayList<>(remaining);
+        for (int i = 0; i < LETTER_KINDS; i++) {
+            for (int j = 0; j < counts[i]; j++) {
+                tiles.add(TILES[i]);
+            }
+        }
+        return tiles;
     }
 
     /**
-     * Shuffles the remaining tiles in the bag.
+     * Shuffles the remaining tiles in the bag. The bag keeps no order, since every draw
+     * is already a random pick, so this has no effect.
      */
     public void shuffle() {
-        Collections.shuffle(tiles, random);
     }
 
     /**
      * Resets the bag to its initial state with all 100 tiles.
      */
     public void reset() {
-        tiles.clear();
-        initializeBag();
+        System.arraycopy(INITIAL_COUNTS, 0, counts, 0, LETTER_KINDS);
+        remaining = 100;
+    }
+
+    private static int indexOf(char letter) {
+        if (letter >= 'A' && letter <= 'Z') {
+            return letter - 'A';
+        }
+        if (letter >= 'a' && letter <= 'z') {
+            return letter - 'a';
+        }
+        return letter == ' ' ? BLANK : -1;
     }
 
     @Override
     public String toString() {
-        return "ScrabbleBag{remainingTiles=" + tiles.size() + "}";
+        return "ScrabbleBag{remainingTiles=" + remaining + "}";
     }
-} 
\ No newline at end of file
+}
@@ -1,50 +1,54 @@
 package dev.newpower.model;
 
+import dev.newpower.lexicon.WordGraph;
+
 import java.util.*;
 
 /**
  * Represents a 15x15 Scrabble board with word placement validation and scoring.
+ * <p>
+ * Squares are addressed as {@code line * 16 + position}, so each row fits one 16-bit lane
+ * of an occupancy bitboard ({@code long[4]}, four rows per long). The board keeps a row-major
+ * copy and a transposed, column-major copy of both the occupancy bits and the letters, so
+ * code written for rows works unchanged on columns by asking for the other orientation.
+ * Adjacency, anchor and occupancy queries on a line are a few shifts and masks.
+ * <p>
+ * When given a {@link WordGraph}, the board also keeps cross-check masks: for every empty
+ * square and each direction of play, the letters that would form a valid perpendicular
+ * word there. They are updated in {@link #placeTile} for the few squares a new tile can
+ * affect, so checking a perpendicular word during placement is a single bit test.
  */
 public class ScrabbleBoard {
-    private final ScrabbleTile[][] board;
-    private final int BOARD_SIZE = 15;
-    private final int CENTER_ROW = 7;
-    private final int CENTER_COL = 7;
-    
-    // Special cell multipliers
-    private final int[][] wordMultipliers;
-    private final int[][] letterMultipliers;
-    
-    public ScrabbleBoard() {
-        this.board = new ScrabbleTile[BOARD_SIZE][BOARD_SIZE];
-        this.wordMultipliers = new int[BOARD_SIZE][BOARD_SIZE];
-        this.letterMultipliers = new int[BOARD_SIZE][BOARD_SIZE];
-        initializeBoard();
-    }
-    
-    /**
-     * Initializes the board with special cell multipliers.
-     */
-    private void initializeBoard() {
-        // Initialize all multipliers to 1
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            Arrays.fill(wordMultipliers[i], 1);
-            Arrays.fill(letterMultipliers[i], 1);
-        }
-        
+    private static final int BOARD_SIZE = 15;
+    private static final int CENTER_ROW = 7;
+    private static final int CENTER_COL = 7;
+    private static final int STRIDE = 16;
+    private static final int LANE_MASK = (1 << BOARD_SIZE) - 1;
+    private static final int ANY_LETTER = (1 << 26) - 1;
+
+    // Special cell multipliers, shared by every board
+    private static final byte[] WORD_MULTIPLIERS = new byte[BOARD_SIZE * STRIDE];
+    private static final byte[] LETTER_MULTIPLIERS = new byte[BOARD_SIZE * STRIDE];
+    // Premium squares of each row as a 15-bit mask
+    private static final int[] PREMIUM_ROWS = new int[BOARD_SIZE];
+
+    static {
+        Arrays.fill(WORD_MULTIPLIERS, (byte) 1);
+        Arrays.fill(LETTER_MULTIPLIERS, (byte) 1);
+
         // Triple Word (corners and center edges)
         int[][] tripleWordPositions = {
             {0, 0}, {0, 7}, {0, 14},
             {7, 0}, {7, 14},
             {14, 0}, {14, 7}, {14, 14}
         };
-        
+
         // Double Word (diagonal lines from corners and center star)
         int[][] doubleWordPositions = {
             {1, 1}, {2, 2}, {3, 3}, {4, 4}, {5, 5}, {6, 6}, {7, 7}, {8, 8}, {9, 9}, {10, 10}, {11, 11}, {12, 12}, {13, 13},
             {1, 13}, {2, 12}, {3, 11}, {4, 10}, {5, 9}, {6, 8}, {8, 6}, {9, 5}, {10, 4}, {11, 3}, {12, 2}, {13, 1}
         };
-        
+
         // Triple Letter
         int[][] tripleLetterPositions = {
             {1, 5}, {1, 9},
@@ -52,7 +56,7 @@ public class ScrabbleBoard {
             {9, 1}, {9, 5}, {9, 9}, {9, 13},
             {13, 5}, {13, 9}
         };
-        
+
         // Double Letter
         int[][] doubleLetterPositions = {
             {0, 3}, {0, 11},
@@ -65,125 +69,395 @@ public class ScrabbleBoard {
             {12, 6}, {12, 8},
             {14, 3}, {14, 11}
         };
-        
+
         // Set multipliers
         for (int[] pos : tripleWordPositions) {
-            wordMultipliers[pos[0]][pos[1]] = 3;
+            WORD_MULTIPLIERS[pos[0] * STRIDE + pos[1]] = 3;
         }
-        
+
         for (int[] pos : doubleWordPositions) {
-            wordMultipliers[pos[0]][pos[1]] = 2;
+            WORD_MULTIPLIERS[pos[0] * STRIDE + pos[1]] = 2;
         }
-        
+
         for (int[] pos : tripleLetterPositions) {
-            letterMultipliers[pos[0]][pos[1]] = 3;
+            LETTER_MULTIPLIERS[pos[0] * STRIDE + pos[1]] = 3;
         }
-        
+
         for (int[] pos : doubleLetterPositions) {
-            letterMultipliers[pos[0]][pos[1]] = 2;
+            LETTER_MULTIPLIERS[pos[0] * STRIDE + pos[1]] = 2;
+        }
+
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                if (WORD_MULTIPLIERS[row * STRIDE + col] > 1 || LETTER_MULTIPLIERS[row * STRIDE + col] > 1) {
+                    PREMIUM_ROWS[row] |= 1 << col;
+                }
+            }
         }
     }
-    
+
+    private final ScrabbleTile[] tiles = new ScrabbleTile[BOARD_SIZE * STRIDE];
+
+    // Letters (0 for empty) and occupancy bits, row-major and transposed
+    private final byte[] rowLetters = new byte[BOARD_SIZE * STRIDE];
+    private final byte[] columnLetters = new byte[BOARD_SIZE * STRIDE];
+    private final long[] rowOccupancy = new long[4];
+    private final long[] columnOccupancy = new long[4];
+    private int tileCount;
+
+    // Cross-check masks (bit 0 = A, bit 25 = Z) for words played across and down
+    private final int[] acrossChecks = new int[BOARD_SIZE * STRIDE];
+    private final int[] downChecks = new int[BOARD_SIZE * STRIDE];
+    private final StringBuilder before = new StringBuilder(BOARD_SIZE);
+    private final StringBuilder after = new StringBuilder(BOARD_SIZE);
+    private WordGraph wordGraph;
+
+    public ScrabbleBoard() {
+        resetCrossChecks();
+    }
+
+    public ScrabbleBoard(WordGraph wordGraph) {
+        this();
+        this.wordGraph = wordGraph;
+    }
+
     /**
      * Places a tile at the specified position.
      */
     public void placeTile(int row, int col, ScrabbleTile tile) {
-        if (isValidPosition(row, col)) {
-            board[row][col] = tile;
+        if (!isValidPosition(row, col)) {
+            return;
+        }
+        int index = row * STRIDE + col;
+        int transposed = col * STRIDE + row;
+        if (tile == null) {
+            if (tiles[index] != null) {
+                tileCount--;
+            }
+            tiles[index] = null;
+            rowLetters[index] = 0;
+            columnLetters[transposed] = 0;
+            clearBit(rowOccupancy, index);
+            clearBit(columnOccupancy, transposed);
+            if (wordGraph != null) {
+                setWordGraph(wordGraph);
+            }
+            return;
+        }
+
+        if (tiles[index] == null) {
+            tileCount++;
+        }
+        tiles[index] = tile;
+        byte letter = (byte) Character.toUpperCase(tile.getLetter());
+        rowLetters[index] = letter;
+        columnLetters[transposed] = letter;
+        setBit(rowOccupancy, index);
+        setBit(columnOccupancy, transposed);
+        if (wordGraph != null) {
+            updateCrossChecks(row, col);
         }
     }
-    
+
     /**
      * Gets a tile at the specified position.
      */
     public ScrabbleTile getTile(int row, int col) {
         if (isValidPosition(row, col)) {
-            return board[row][col];
+            return tiles[row * STRIDE + col];
         }
         return null;
     }
-    
+
+    /**
+     * Gets the upper-case letter on a square, reading rows when horizontal is true and
+     * the transposed board otherwise.
+     * @param line Row when horizontal, column otherwise
+     * @param pos Column when horizontal, row otherwise
+     * @return The letter, or 0 if the square is empty
+     */
+    public char getLetter(int line, int pos, boolean horizontal) {
+        if (!isValidPosition(line, pos)) {
+            return 0;
+        }
+        return (char) ((horizontal ? rowLetters : columnLetters)[line * STRIDE + pos] & 0xFF);
+    }
+
+    /**
+     * Gets the occupied squares of a row (horizontal) or column as a 15-bit mask,
+     * bit i set when position i holds a tile.
+     */
+    public int getOccupancy(int line, boolean horizontal) {
+        if (line < 0 || line >= BOARD_SIZE) {
+            return 0;
+        }
+        long[] occupancy = horizontal ? rowOccupancy : columnOccupancy;
+        return (int) (occupancy[line >>> 2] >>> ((line & 3) * STRIDE)) & LANE_MASK;
+    }
+
+    /**
+     * Gets the anchor squares of a row (horizontal) or column as a 15-bit mask: the empty
+     * squares next to a tile, or the center square while the board is empty.
+     */
+    public int getAnchors(int line, boolean horizontal) {
+        if (tileCount == 0) {
+            return line == CENTER_ROW ? 1 << CENTER_COL : 0;
+        }
+        int occupied = getOccupancy(line, horizontal);
+        int neighbours = getOccupancy(line - 1, horizontal) | getOccupancy(line + 1, horizontal)
+                | (occupied << 1) | (occupied >>> 1);
+        return neighbours & ~occupied & LANE_MASK;
+    }
+
     /**
      * Checks if a position is valid on the board.
      */
     public boolean isValidPosition(int row, int col) {
         return row >= 0 && row < BOARD_SIZE && col >= 0 && col < BOARD_SIZE;
     }
-    
+
     /**
      * Checks if a position is empty.
      */
     public boolean isEmpty(int row, int col) {
-        return isValidPosition(row, col) && board[row][col] == null;
+        return isValidPosition(row, col) && (getOccupancy(row, true) & (1 << col)) == 0;
+    }
+
+    /**
+     * Checks if a position holds a tile or is directly next to one.
+     */
+    public boolean isAdjacentToTile(int row, int col) {
+        if (!isValidPosition(row, col)) {
+            return false;
+        }
+        int bit = 1 << col;
+        int occupied = getOccupancy(row, true);
+        return ((occupied | occupied << 1 | occupied >>> 1
+                | getOccupancy(row - 1, true) | getOccupancy(row + 1, true)) & bit) != 0;
     }
-    
+
     /**
      * Gets the word multiplier at a position.
      */
     public int getWordMultiplier(int row, int col) {
-        return isValidPosition(row, col) ? wordMultipliers[row][col] : 1;
+        return isValidPosition(row, col) ? WORD_MULTIPLIERS[row * STRIDE + col] : 1;
     }
-    
+
     /**
      * Gets the letter multiplier at a position.
      */
     public int getLetterMultiplier(int row, int col) {
-        return isValidPosition(row, col) ? letterMultipliers[row][col] : 1;
+        return isValidPosition(row, col) ? LETTER_MULTIPLIERS[row * STRIDE + col] : 1;
     }
-    
+
     /**
      * Checks if the center position is occupied (required for first word).
      */
     public boolean isCenterOccupied() {
-        return board[CENTER_ROW][CENTER_COL] != null;
+        return !isEmpty(CENTER_ROW, CENTER_COL);
     }
-    
+
     /**
      * Gets the board size.
      */
     public int getBoardSize() {
         return BOARD_SIZE;
     }
-    
+
     /**
      * Gets the center position.
      */
     public int getCenterRow() {
         return CENTER_ROW;
     }
-    
+
     public int getCenterCol() {
         return CENTER_COL;
     }
-    
+
     /**
      * Clears the board.
      */
     public void clear() {
-        for (int i = 0; i < BOARD_SIZE; i++) {
-            Arrays.fill(board[i], null);
-        }
+        Arrays.fill(tiles, null);
+        Arrays.fill(rowLetters, (byte) 0);
+        Arrays.fill(columnLetters, (byte) 0);
+        Arrays.fill(rowOccupancy, 0L);
+        Arrays.fill(columnOccupancy, 0L);
+        tileCount = 0;
+        resetCrossChecks();
     }
-    
+
     /**
      * Gets all placed tiles on the board.
      */
     public List<ScrabbleTile> getPlacedTiles() {
-        List<ScrabbleTile> tiles = new ArrayList<>();
+        List<ScrabbleTile> placed = new ArrayList<>(tileCount);
         for (int i = 0; i < BOARD_SIZE; i++) {
-            for (int j = 0; j < BOARD_SIZE; j++) {
-                if (board[i][j] != null) {
-                    tiles.add(board[i][j]);
-                }
+            int occupied = getOccupancy(i, true);
+            while (occupied != 0) {
+                int j = Integer.numberOfTrailingZeros(occupied);
+                occupied &= occupied - 1;
+                placed.add(tiles[i * STRIDE + j]);
             }
         }
-        return tiles;
+        return placed;
     }
-    
+
     /**
      * Gets the number of placed tiles.
      */
     public int getPlacedTileCount() {
-        return getPlacedTiles().size();
+        return tileCount;
+    }
+
+    /**
+     * Gets the number of premium squares covered by a tile.
+     */
+    public int getCoveredPremiumCount() {
+        int count = 0;
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            count += Integer.bitCount(getOccupancy(row, true) & PREMIUM_ROWS[row]);
+        }
+        return count;
+    }
+
+    /**
+     * Sets the word graph cross-checks are computed from and recomputes them for the
+     * tiles already on the board.
+     * @param wordGraph The word graph, or null to stop maintaining cross-checks
+     */
+    public void setWordGraph(WordGraph wordGraph) {
+        this.wordGraph = wordGraph;
+        resetCrossChecks();
+        if (wordGraph != null) {
+            for (int i = 0; i < BOARD_SIZE; i++) {
+                int occupied = getOccupancy(i, true);
+                while (occupied != 0) {
+                    int j = Integer.numberOfTrailingZeros(occupied);
+                    occupied &= occupied - 1;
+                    updateCrossChecks(i, j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the word graph cross-checks are computed from, or null if they are not maintained.
+     */
+    public WordGraph getWordGraph() {
+        return wordGraph;
+    }
+
+    /**
+     * Gets the letters that can be played on a square as part of a word in the given
+     * direction without forming an invalid word the other way.
+     * @param horizontal True for a word played across, false for one played down
+     * @return A bit mask of letters (bit 0 = A, bit 25 = Z); 0 for an occupied square
+     * @throws IllegalStateException if the board has no word graph
+     */
+    public int getCrossCheck(int row, int col, boolean horizontal) {
+        if (wordGraph == null) {
+            throw new IllegalStateException("Cross-checks need a word graph");
+        }
+        if (!isValidPosition(row, col)) {
+            return 0;
+        }
+        return (horizontal ? acrossChecks : downChecks)[row * STRIDE + col];
+    }
+
+    /**
+     * Checks if a letter can be played on a square as part of a word in the given direction.
+     */
+    public boolean isCrossCheckValid(int row, int col, char letter, boolean horizontal) {
+        int index = Character.toUpperCase(letter) - 'A';
+        return index >= 0 && index < 26 && (getCrossCheck(row, col, horizontal) & (1 << index)) != 0;
+    }
+
+    private void resetCrossChecks() {
+        for (int i = 0; i < tiles.length; i++) {
+            int mask = tiles[i] == null ? ANY_LETTER : 0;
+            acrossChecks[i] = mask;
+            downChecks[i] = mask;
+        }
+    }
+
+    /**
+     * Updates the cross-checks a new tile can change: its own square, and the empty
+     * squares at each end of the runs of tiles it is now part of.
+     */
+    private void updateCrossChecks(int row, int col) {
+        acrossChecks[row * STRIDE + col] = 0;
+        downChecks[row * STRIDE + col] = 0;
+
+        // The tile's column decides what can be played across just above and below it
+        int top = runStart(getOccupancy(col, false), row);
+        int bottom = runEnd(getOccupancy(col, false), row);
+        if (top > 0) {
+            acrossChecks[(top - 1) * STRIDE + col] = computeCrossCheck(col, top - 1, columnLetters);
+        }
+        if (bottom < BOARD_SIZE - 1) {
+            acrossChecks[(bottom + 1) * STRIDE + col] = computeCrossCheck(col, bottom + 1, columnLetters);
+        }
+
+        // The tile's row decides what can be played down just left and right of it
+        int left = runStart(getOccupancy(row, true), col);
+        int right = runEnd(getOccupancy(row, true), col);
+        if (left > 0) {
+            downChecks[row * STRIDE + left - 1] = computeCrossCheck(row, left - 1, rowLetters);
+        }
+        if (right < BOARD_SIZE - 1) {
+            downChecks[row * STRIDE + right + 1] = computeCrossCheck(row, right + 1, rowLetters);
+        }
+    }
+
+    /**
+     * Gets the first position of the run of occupied squares through a position.
+     */
+    private static int runStart(int occupied, int pos) {
+        int gaps = ~occupied & ((1 << pos) - 1);
+        return gaps == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(gaps);
+    }
+
+    /**
+     * Gets the last position of the run of occupied squares through a position.
+     */
+    private static int runEnd(int occupied, int pos) {
+        int gaps = ~occupied & ~((2 << pos) - 1);
+        return Integer.numberOfTrailingZeros(gaps) - 1;
+    }
+
+    /**
+     * Computes the letters that complete the tiles on either side of an empty square
+     * into a word, reading along one line of a letter grid.
+     */
+    private int computeCrossCheck(int line, int pos, byte[] letters) {
+        before.setLength(0);
+        after.setLength(0);
+        int base = line * STRIDE;
+
+        int start = pos;
+        while (start > 0 && letters[base + start - 1] != 0) {
+            start--;
+        }
+        for (int p = start; p < pos; p++) {
+            before.append((char) letters[base + p]);
+        }
+        for (int p = pos + 1; p < BOARD_SIZE && letters[base + p] != 0; p++) {
+            after.append((char) letters[base + p]);
+        }
+
+        if (before.length() == 0 && after.length() == 0) {
+            return ANY_LETTER;
+        }
+        return wordGraph.crossCheck(before, after);
+    }
+
+    private static void setBit(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static void clearBit(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << index);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,159 @@
+package dev.newpower.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import dev.newpower.lexicon.LexiconSnapshot;
+import dev.newpower.model.PuzzleSnapshot;
+import dev.newpower.model.ScrabbleBoard;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates several puzzles in parallel and keeps the best one.
+ * <p>
+ * Each candidate is an independent generation with its own seed, run on a shared
+ * fork-join pool. Candidates are scored by tiles placed first and premium squares covered
+ * second. As soon as a candidate places every tile it can, or the time budget runs out,
+ * the others are cancelled; they stop at their next move and their partial boards still
+ * compete, so there is always a result.
+ */
+@Service
+public class BestOfPuzzleService {
+
+    private static final Logger log = LoggerFactory.getLogger(BestOfPuzzleService.class);
+
+    // Tiles on a finished puzzle board
+    private static final int TARGET_TILES = 100 - ScrabblePuzzleService.PUZZLE_TILES;
+
+    @Autowired
+    private ScrabblePuzzleService puzzleService;
+
+    @Autowired
+    private WordDictionaryService wordDictionaryService;
+
+    @Value("${wordz.puzzle.best-of.max-candidates:16}")
+    private int maxCandidates;
+
+    @Value("${wordz.puzzle.best-of.budget-ms:2000}")
+    private long budgetMillis;
+
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Generates up to {@code candidates} puzzles within the configured time budget and
+     * returns the best.
+     * @param lexiconName The lexicon name, or null for the default lexicon
+     */
+    public PuzzleSnapshot generateBest(String lexiconName, int candidates) {
+        return generateBest(lexiconName, candidates, null);
+    }
+
+    /**
+     * Generates up to {@code candidates} puzzles and returns the best.
+     * @param lexiconName The lexicon name, or null for the default lexicon
+     * @param timeoutMillis Time budget, at most {@code wordz.puzzle.best-of.budget-ms}; null for that default
+     */
+    public PuzzleSnapshot generateBest(String lexiconName, int candidates, Long timeoutMillis) {
+        if (candidates < 1 || candidates > maxCandidates) {
+            throw new IllegalArgumentException("Candidates must be between 1 and " + maxCandidates);
+        }
+        if (timeoutMillis != null && timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        LexiconSnapshot lexicon = wordDictionaryService.getLexicon(lexiconName);
+        long budget = timeoutMillis != null ? Math.min(timeoutMillis, budgetMillis) : budgetMillis;
+        // One token for every candidate, cancelled once the winner is known
+        CancellationToken token = CancellationToken.withTimeout(budget, TimeUnit.MILLISECONDS);
+
+        List<Future<PuzzleGenerationContext>> futures = new ArrayList<>(candidates);
+        ExecutorCompletionService<PuzzleGenerationContext> completion = new ExecutorCompletionService<>(pool);
+        for (int i = 0; i < candidates; i++) {
+            PuzzleGenerationContext context = new PuzzleGenerationContext(lexicon, ThreadLocalRandom.current().nextLong(), token);
+            futures.add(completion.submit(() -> {
+                puzzleService.placeWordsOnBoard(context, null);
+                return context;
+            }));
+        }
+
+        try {
+            // Wait for a finished board or the end of the budget, whichever comes first
+            for (int finished = 0; finished < candidates; finished++) {
+                Future<PuzzleGenerationContext> next = completion.poll(token.remainingNanos(), TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                PuzzleGenerationContext context = result(next);
+                if (context != null && context.getBoard().getPlacedTileCount() >= TARGET_TILES) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            token.cancel();
+        }
+
+        // Cancelled candidates return promptly with the board they had reached
+        PuzzleGenerationContext best = null;
+        for (Future<PuzzleGenerationContext> future : futures) {
+            best = better(best, result(future));
+        }
+        if (best == null) {
+            throw new IllegalStateException("No puzzle candidate completed");
+        }
+        log.debug("Best of {} puzzles placed {} tiles over {} premium squares", candidates,
+                best.getBoard().getPlacedTileCount(), best.getBoard().getCoveredPremiumCount());
+        return puzzleService.createPuzzle(best);
+    }
+
+    /**
+     * Waits for a candidate, returning null if it failed.
+     */
+    private static PuzzleGenerationContext result(Future<PuzzleGenerationContext> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("Puzzle candidate failed", e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * Picks the better of two candidates, keeping the first on a tie.
+     * @param best The best candidate so far, or null if there is none
+     * @param candidate The next candidate, or null if it failed
+     */
+    static PuzzleGenerationContext better(PuzzleGenerationContext best, PuzzleGenerationContext candidate) {
+        if (candidate == null || (best != null && score(best.getBoard()) >= score(candidate.getBoard()))) {
+            return best;
+        }
+        return candidate;
+    }
+
+    /**
+     * Scores a board by tiles placed, then by premium squares covered.
+     */
+    private static int score(ScrabbleBoard board) {
+        return board.getPlacedTileCount() * 256 + board.getCoveredPremiumCount();
+    }
+}
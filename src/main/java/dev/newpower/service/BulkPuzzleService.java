@@ -0,0 +1,120 @@
+package dev.newpower.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import dev.newpower.lexicon.LexiconSnapshot;
+import dev.newpower.model.Puzzle;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Generates large batches of puzzles and writes them as newline-delimited JSON, one
+ * compact puzzle per line.
+ * <p>
+ * Puzzles are generated in parallel but written in order, with at most a fixed window of
+ * them in flight, so memory stays bounded however many are requested. A new puzzle is only
+ * started once an earlier one has been written, so a slow reader slows generation down,
+ * and when a write fails because the client has gone the puzzles still in flight are
+ * cancelled. The puzzle seeds follow from the batch seed and puzzles are not given the
+ * per-request generation timeout, so a batch seed always gives the same lines.
+ */
+@Service
+public class BulkPuzzleService {
+
+    @Autowired
+    private ScrabblePuzzleService puzzleService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${wordz.puzzle.bulk.max-count:10000}")
+    private int maxCount;
+
+    @Value("${wordz.puzzle.bulk.window:0}")
+    private int window;
+
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+        Thread thread = new Thread(runnable, "puzzle-bulk-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private record Pending(CancellationToken token, CompletableFuture<byte[]> line) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Checks that a batch size can be served, before any output is written.
+     */
+    public void checkCount(int count) {
+        if (count < 1 || count > maxCount) {
+            throw new IllegalArgumentException("Count must be between 1 and " + maxCount);
+        }
+    }
+
+    /**
+     * Generates {@code count} puzzles and writes each as a line of JSON as soon as it and
+     * the puzzles before it are ready.
+     * @param seed Seed the puzzle seeds are drawn from
+     * @throws IOException If writing fails; generation is stopped first
+     */
+    public void writePuzzles(LexiconSnapshot lexicon, int count, long seed, OutputStream out) throws IOException {
+        checkCount(count);
+        int windowSize = window > 0 ? window : 2 * Runtime.getRuntime().availableProcessors();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        Deque<Pending> pending = new ArrayDeque<>(windowSize);
+        int started = 0;
+        try {
+            while (started < count || !pending.isEmpty()) {
+                while (started < count && pending.size() < windowSize) {
+                    pending.add(start(lexicon, seeds.nextLong()));
+                    started++;
+                }
+                out.write(pending.poll().line().join());
+                out.flush();
+            }
+        } finally {
+            // Only left over when the output failed; stop generating for nobody
+            for (Pending puzzle : pending) {
+                puzzle.token().cancel();
+            }
+        }
+    }
+
+    private Pending start(LexiconSnapshot lexicon, long seed) {
+        // Only cancelled when the client goes; a deadline would make the lines depend on load
+        CancellationToken token = CancellationToken.none();
+        CompletableFuture<byte[]> line = CompletableFuture.supplyAsync(() -> {
+            Puzzle puzzle = puzzleService.generateCompactPuzzle(lexicon, seed, token);
+            try {
+                byte[] json = objectMapper.writeValueAsBytes(puzzle);
+                byte[] bytes = Arrays.copyOf(json, json.length + 1);
+                bytes[json.length] = '\n';
+                return bytes;
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not encode puzzle", e);
+            }
+        }, executor);
+        return new Pending(token, line);
+    }
+}
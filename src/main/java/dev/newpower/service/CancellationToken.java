@@ -0,0 +1,57 @@
+package dev.newpower.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells a running generation when to stop: once it is cancelled or its deadline passes.
+ * Generation checks the token between moves and keeps the board it has built so far,
+ * so a stopped generation still produces a (partial) puzzle. One token may be shared by
+ * several generations and cancelled from any thread.
+ */
+public final class CancellationToken {
+    
+    private final long deadline;
+    private final boolean hasDeadline;
+    private volatile boolean cancelled;
+    
+    private CancellationToken(long deadline, boolean hasDeadline) {
+        this.deadline = deadline;
+        this.hasDeadline = hasDeadline;
+    }
+    
+    /**
+     * Creates a token that only stops when cancelled.
+     */
+    public static CancellationToken none() {
+        return new CancellationToken(0, false);
+    }
+    
+    /**
+     * Creates a token whose deadline is the given time from now.
+     */
+    public static CancellationToken withTimeout(long timeout, TimeUnit unit) {
+        return new CancellationToken(System.nanoTime() + unit.toNanos(timeout), true);
+    }
+    
+    public void cancel() {
+        cancelled = true;
+    }
+    
+    /**
+     * Checks if generation should stop, because the token was cancelled or its deadline passed.
+     */
+    public boolean isCancelled() {
+        return cancelled || hasDeadline && System.nanoTime() - deadline >= 0;
+    }
+    
+    /**
+     * Gets the time left before the deadline in nanoseconds, 0 once it has passed
+     * or the token was cancelled, and {@link Long#MAX_VALUE} without a deadline.
+     */
+    public long remainingNanos() {
+        if (cancelled) {
+            return 0;
+        }
+        return hasDeadline ? Math.max(0, deadline - System.nanoTime()) : Long.MAX_VALUE;
+    }
+}
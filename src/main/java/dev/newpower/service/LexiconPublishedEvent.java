@@ -0,0 +1,32 @@
+package dev.newpower.service;
+
+import dev.newpower.lexicon.LexiconSnapshot;
+
+/**
+ * Published when a lexicon snapshot is loaded or replaced, so anything built from the
+ * previous version of that lexicon can be discarded.
+ */
+public final class LexiconPublishedEvent {
+    
+    private final LexiconSnapshot snapshot;
+    private final LexiconSnapshot previous;
+    
+    public LexiconPublishedEvent(LexiconSnapshot snapshot, LexiconSnapshot previous) {
+        this.snapshot = snapshot;
+        this.previous = previous;
+    }
+    
+    /**
+     * Gets the snapshot now in use.
+     */
+    public LexiconSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Gets the snapshot it replaced, or null if the lexicon is new.
+     */
+    public LexiconSnapshot getPrevious() {
+        return previous;
+    }
+}
@@ -0,0 +1,100 @@
+package dev.newpower.service;
+
+import dev.newpower.engine.MoveGenerator;
+import dev.newpower.lexicon.LexiconSnapshot;
+import dev.newpower.model.ScrabbleBag;
+import dev.newpower.model.ScrabbleBoard;
+
+import java.util.SplittableRandom;
+
+/**
+ * Everything one puzzle generation works on: its own bag, board, random number generator,
+ * move generator and scratch buffers, plus the lexicon snapshot it was started with.
+ * A context is confined to the thread generating its puzzle and is discarded afterwards.
+ * <p>
+ * All randomness comes from one {@link SplittableRandom} seeded by the caller, with the
+ * bag drawing from its own split, so the same seed and lexicon version always produce the
+ * same puzzle.
+ */
+public final class PuzzleGenerationContext {
+    
+    private final LexiconSnapshot lexicon;
+    private final long seed;
+    private final SplittableRandom random;
+    private final ScrabbleBag bag;
+    private final ScrabbleBoard board;
+    private final MoveGenerator moveGenerator;
+    private final int[] letterCounts = new int[26];
+    private final CancellationToken token;
+    private boolean partial;
+    
+    public PuzzleGenerationContext(LexiconSnapshot lexicon, long seed) {
+        this(lexicon, seed, CancellationToken.none());
+    }
+    
+    public PuzzleGenerationContext(LexiconSnapshot lexicon, long seed, CancellationToken token) {
+        this.lexicon = lexicon;
+        this.seed = seed;
+        this.token = token;
+        this.random = new SplittableRandom(seed);
+        this.bag = new ScrabbleBag(random.split());
+        this.board = new ScrabbleBoard(lexicon.getWordGraph());
+        this.moveGenerator = new MoveGenerator(lexicon.getWordGraph());
+    }
+    
+    public LexiconSnapshot getLexicon() {
+        return lexicon;
+    }
+    
+    /**
+     * Gets the seed all of this generation's randomness derives from.
+     */
+    public long getSeed() {
+        return seed;
+    }
+    
+    public SplittableRandom getRandom() {
+        return random;
+    }
+    
+    public ScrabbleBag getBag() {
+        return bag;
+    }
+    
+    public ScrabbleBoard getBoard() {
+        return board;
+    }
+    
+    public MoveGenerator getMoveGenerator() {
+        return moveGenerator;
+    }
+    
+    public CancellationToken getToken() {
+        return token;
+    }
+    
+    /**
+     * Checks if the generation has been told to stop placing words.
+     */
+    public boolean isCancelled() {
+        return token.isCancelled();
+    }
+    
+    /**
+     * Checks if the generation was stopped before the board was finished.
+     */
+    public boolean isPartial() {
+        return partial;
+    }
+    
+    void markPartial() {
+        partial = true;
+    }
+    
+    /**
+     * Gets a reusable buffer of 26 letter counts.
+     */
+    public int[] getLetterCounts() {
+        return letterCounts;
+    }
+}
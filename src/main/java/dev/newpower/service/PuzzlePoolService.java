@@ -0,0 +1,264 @@
+package dev.newpower.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import dev.newpower.lexicon.LexiconSnapshot;
+import dev.newpower.model.PuzzleSnapshot;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bounded pool of ready-made puzzles for the default lexicon.
+ * <p>
+ * Background workers top the pool up to its capacity whenever it falls below the low-water
+ * mark, so a request normally takes a finished puzzle instead of generating one. When the
+ * pool is empty the request generates its own puzzle as before. Each puzzle remembers the
+ * lexicon version it was built from; the pool is drained when a different version of the
+ * default lexicon is published, and any stale puzzle still in flight is dropped on take.
+ * Pooled puzzles are only put in the store when they are handed out, so the ones that
+ * are drained never take up space there.
+ * Disabled unless {@code wordz.puzzle.pool.enabled} is set.
+ */
+@Service
+public class PuzzlePoolService {
+
+    private static final Logger log = LoggerFactory.getLogger(PuzzlePoolService.class);
+
+    @Autowired
+    private ScrabblePuzzleService puzzleService;
+
+    @Autowired
+    private WordDictionaryService wordDictionaryService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wordz.puzzle.pool.enabled:false}")
+    private boolean enabled;
+
+    @Value("${wordz.puzzle.pool.capacity:32}")
+    private int capacity;
+
+    @Value("${wordz.puzzle.pool.low-water-mark:8}")
+    private int lowWaterMark;
+
+    @Value("${wordz.puzzle.pool.workers:2}")
+    private int workerCount;
+
+    private BlockingQueue<PooledPuzzle> pool;
+    private final List<Thread> workers = new ArrayList<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition refillNeeded = lock.newCondition();
+    private boolean refilling;
+    private volatile boolean running;
+
+    private Counter refills;
+    private Counter poolHits;
+    private Counter poolMisses;
+
+    private record PooledPuzzle(long version, PuzzleSnapshot puzzle) {
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (capacity < 1 || lowWaterMark < 0 || lowWaterMark > capacity || workerCount < 1) {
+            throw new IllegalStateException("Invalid puzzle pool settings: capacity=" + capacity
+                    + ", low-water-mark=" + lowWaterMark + ", workers=" + workerCount);
+        }
+        pool = new ArrayBlockingQueue<>(capacity);
+        registerMetrics();
+
+        running = true;
+        refilling = true;
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::refill, "puzzle-pool-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        log.info("Puzzle pool started with capacity {}, low-water mark {} and {} workers", capacity, lowWaterMark, workerCount);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (Thread worker : workers) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Checks if puzzles are being pooled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Gets a puzzle, from the pool when it holds one for the lexicon and by generating it otherwise.
+     * @param lexiconName The lexicon name, or null for the default lexicon
+     * @param token Stops the generation if the pool cannot serve the request
+     */
+    public PuzzleSnapshot take(String lexiconName, CancellationToken token) {
+        LexiconSnapshot lexicon = wordDictionaryService.getLexicon(lexiconName);
+        if (!enabled || lexicon != wordDictionaryService.getDefaultLexicon()) {
+            return generate(lexicon, token);
+        }
+
+        PooledPuzzle pooled;
+        while ((pooled = pool.poll()) != null && pooled.version() != lexicon.getVersion()) {
+            // Built from a version of the lexicon that has since been replaced
+        }
+        if (pool.size() < lowWaterMark) {
+            requestRefill();
+        }
+        if (pooled != null) {
+            poolHits.increment();
+            return puzzleService.storePuzzle(pooled.puzzle());
+        }
+        poolMisses.increment();
+        return generate(lexicon, token);
+    }
+
+    private PuzzleSnapshot generate(LexiconSnapshot lexicon, CancellationToken token) {
+        return puzzleService.generatePuzzle(lexicon, ThreadLocalRandom.current().nextLong(), token, null);
+    }
+
+    /**
+     * Discards every pooled puzzle and starts refilling the pool.
+     * @return The number of puzzles discarded
+     */
+    public int drain() {
+        if (!enabled) {
+            return 0;
+        }
+        List<PooledPuzzle> drained = new ArrayList<>();
+        pool.drainTo(drained);
+        requestRefill();
+        return drained.size();
+    }
+
+    /**
+     * Gets the number of puzzles ready in the pool.
+     */
+    public int size() {
+        return enabled ? pool.size() : 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getLowWaterMark() {
+        return lowWaterMark;
+    }
+
+    /**
+     * Gets the fraction of default-lexicon requests served from the pool.
+     */
+    public double getHitRatio() {
+        if (!enabled) {
+            return 0;
+        }
+        double requests = poolHits.count() + poolMisses.count();
+        return requests == 0 ? 0 : poolHits.count() / requests;
+    }
+
+    @EventListener
+    public void onLexiconPublished(LexiconPublishedEvent event) {
+        LexiconSnapshot previous = event.getPrevious();
+        if (enabled && previous != null && previous.getName().equals(wordDictionaryService.getDefaultLexicon().getName())
+                && previous.getVersion() != event.getSnapshot().getVersion()) {
+            log.info("Default lexicon changed, drained {} pooled puzzles", drain());
+        }
+    }
+
+    private void requestRefill() {
+        lock.lock();
+        try {
+            refilling = true;
+            refillNeeded.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Worker loop: waits until the pool drops below the low-water mark, then generates
+     * puzzles until it is full again.
+     */
+    private void refill() {
+        while (running) {
+            lock.lock();
+            try {
+                while (!refilling) {
+                    refillNeeded.await();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                LexiconSnapshot lexicon = wordDictionaryService.getDefaultLexicon();
+                PuzzleSnapshot puzzle = puzzleService.generateUnstoredPuzzle(lexicon, ThreadLocalRandom.current().nextLong(),
+                        puzzleService.newCancellationToken(null));
+                // Only finished boards are worth keeping
+                if (!puzzle.isPartial() && pool.offer(new PooledPuzzle(lexicon.getVersion(), puzzle))) {
+                    refills.increment();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not generate a pooled puzzle", e);
+            }
+
+            lock.lock();
+            try {
+                if (pool.remainingCapacity() == 0) {
+                    refilling = false;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void registerMetrics() {
+        Gauge.builder("wordz.puzzle.pool.size", this, PuzzlePoolService::size)
+                .description("Number of ready-made puzzles in the pool")
+                .register(meterRegistry);
+        refills = Counter.builder("wordz.puzzle.pool.refills")
+                .description("Number of puzzles generated in the background to refill the pool")
+                .register(meterRegistry);
+        poolHits = Counter.builder("wordz.puzzle.requests")
+                .description("Number of default-lexicon puzzle requests, by where the puzzle came from")
+                .tag("source", "pool")
+                .register(meterRegistry);
+        poolMisses = Counter.builder("wordz.puzzle.requests")
+                .description("Number of default-lexicon puzzle requests, by where the puzzle came from")
+                .tag("source", "generated")
+                .register(meterRegistry);
+        Gauge.builder("wordz.puzzle.pool.hit.ratio", this, PuzzlePoolService::getHitRatio)
+                .description("Fraction of default-lexicon puzzle requests served from the pool")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,121 @@
+package dev.newpower.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import dev.newpower.model.Puzzle;
+import dev.newpower.store.PuzzleStore;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps every puzzle handed out by the API in a {@link PuzzleStore} so it can be fetched
+ * again by ID, also after a restart. Buffered puzzles are forced to disk every
+ * {@code wordz.puzzle.store.sync-interval-ms}. Storing is skipped, with a warning, when
+ * {@code wordz.puzzle.store.dir} is blank or the store cannot be opened.
+ */
+@Service
+public class PuzzleStoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(PuzzleStoreService.class);
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${wordz.puzzle.store.dir:}")
+    private String storeDir;
+
+    @Value("${wordz.puzzle.store.sync-interval-ms:1000}")
+    private long syncIntervalMillis;
+
+    private PuzzleStore store;
+    private final ScheduledExecutorService syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "puzzle-store-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void open() {
+        if (storeDir == null || storeDir.isBlank()) {
+            return;
+        }
+        try {
+            store = PuzzleStore.open(Path.of(storeDir));
+        } catch (IOException e) {
+            log.warn("Could not open the puzzle store in {}, puzzles will not be kept", storeDir, e);
+            return;
+        }
+        log.info("Opened puzzle store in {} up to puzzle {}", storeDir, store.size());
+        syncer.scheduleWithFixedDelay(this::sync, syncIntervalMillis, syncIntervalMillis, TimeUnit.MILLISECONDS);
+        Gauge.builder("wordz.puzzle.store.size", store, PuzzleStore::size)
+                .description("Highest puzzle ID issued by the puzzle store")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void close() {
+        syncer.shutdownNow();
+        if (store != null) {
+            try {
+                store.close();
+            } catch (IOException e) {
+                log.warn("Could not close the puzzle store", e);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    /**
+     * Stores a puzzle.
+     * @return The puzzle's ID, or 0 if it was not stored
+     */
+    public long save(Puzzle puzzle) {
+        if (store == null) {
+            return 0;
+        }
+        try {
+            return store.append(puzzle);
+        } catch (IOException e) {
+            log.warn("Could not store puzzle", e);
+            return 0;
+        }
+    }
+
+    /**
+     * Gets a stored puzzle.
+     * @return The puzzle, or null if there is none with that ID
+     */
+    public Puzzle find(long id) {
+        if (store == null) {
+            return null;
+        }
+        try {
+            return store.get(id);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read puzzle " + id, e);
+        }
+    }
+
+    private void sync() {
+        try {
+            store.sync();
+        } catch (IOException e) {
+            log.warn("Could not sync the puzzle store", e);
+        }
+    }
+}
@@ -1,41 +1,175 @@
 package dev.newpower.service;
 
+import dev.newpower.engine.Move;
+import dev.newpower.engine.MoveGenerator;
+import dev.newpower.engine.MoveScorer;
+import dev.newpower.engine.MoveVisitor;
+import dev.newpower.lexicon.LexiconSnapshot;
+import dev.newpower.model.BestMove;
+import dev.newpower.model.Puzzle;
+import dev.newpower.model.PuzzleSnapshot;
 import dev.newpower.model.ScrabbleBag;
 import dev.newpower.model.ScrabbleBoard;
 import dev.newpower.model.ScrabbleTile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Service for generating Scrabble puzzles with valid words and remaining tiles.
+ * <p>
+ * The service holds no generation state: each puzzle is built in its own
+ * {@link PuzzleGenerationContext}, so any number of puzzles can be generated at once.
+ * Every puzzle is generated from a seed, reported with it, and can be generated again from
+ * that seed and the same lexicon version.
  */
 @Service
 public class ScrabblePuzzleService {
     
+    private static final Logger log = LoggerFactory.getLogger(ScrabblePuzzleService.class);
+    
     @Autowired
     private WordDictionaryService wordDictionaryService;
     
-    private final ScrabbleBag bag = new ScrabbleBag();
-    private final ScrabbleBoard board = new ScrabbleBoard();
+    @Autowired
+    private PuzzleStoreService puzzleStoreService;
+    
+    // Tiles left in the bag for the player to solve the puzzle with
+    static final int PUZZLE_TILES = 7;
+    // Racks tried per turn before falling back to the whole bag
+    private static final int RACK_ATTEMPTS = 10;
+    
+    @Value("${wordz.puzzle.timeout-ms:5000}")
+    private long timeoutMillis;
+    
+    @Value("${wordz.puzzle.seed-cache-size:256}")
+    private int seedCacheSize;
+    
+    @Value("${wordz.puzzle.store.cache-size:256}")
+    private int storeCacheSize;
+    
+    // Seeded puzzles by lexicon version, least recently used first
+    private final Map<SeedKey, CompletableFuture<PuzzleSnapshot>> seedCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<SeedKey, CompletableFuture<PuzzleSnapshot>> eldest) {
+            return size() > seedCacheSize;
+        }
+    };
+    
+    private record SeedKey(String lexicon, long version, long seed) {
+    }
+    
+    // Stored puzzles by ID, least recently used first
+    private final Map<Long, PuzzleSnapshot> storeCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, PuzzleSnapshot> eldest) {
+            return size() > storeCacheSize;
+        }
+    };
+    
+    // Empty puzzle for the current default lexicon, built on first use
+    private volatile EmptyPuzzle emptyPuzzle;
+    
+    private record EmptyPuzzle(LexiconSnapshot lexicon, PuzzleSnapshot puzzle) {
+    }
     
     /**
      * Generates a new Scrabble puzzle with 93 tiles placed as valid words
      * and returns 7 random tiles from the remaining tiles as the puzzle.
      */
-    public Map<String, Object> generatePuzzle() {
+    public PuzzleSnapshot generatePuzzle() {
         return generatePuzzle(null);
     }
     
     /**
      * Generates a new Scrabble puzzle with placement events.
      */
-    public Map<String, Object> generatePuzzle(Consumer<Map<String, Object>> placementCallback) {
-        // Reset everything
-        bag.reset();
-        board.clear();
+    public PuzzleSnapshot generatePuzzle(Consumer<Map<String, Object>> placementCallback) {
+        return generatePuzzle((String) null, placementCallback);
+    }
+    
+    /**
+     * Generates a new Scrabble puzzle using the words of a named lexicon.
+     * @param lexiconName The lexicon name, or null for the default lexicon
+     */
+    public PuzzleSnapshot generatePuzzle(String lexiconName, Consumer<Map<String, Object>> placementCallback) {
+        return generatePuzzle(wordDictionaryService.getLexicon(lexiconName), placementCallback);
+    }
+    
+    /**
+     * Generates a new Scrabble puzzle using the words of a lexicon snapshot.
+     */
+    public PuzzleSnapshot generatePuzzle(LexiconSnapshot lexicon, Consumer<Map<String, Object>> placementCallback) {
+        return generatePuzzle(lexicon, ThreadLocalRandom.current().nextLong(), newCancellationToken(null), placementCallback);
+    }
+    
+    /**
+     * Generates the puzzle for a seed. The same seed and lexicon version always give the
+     * same puzzle, and the result is cached so popular seeds are only generated once.
+     * @param lexiconName The lexicon name, or null for the default lexicon
+     */
+    public PuzzleSnapshot generatePuzzle(String lexiconName, long seed) {
+        return generatePuzzle(lexiconName, seed, newCancellationToken(null));
+    }
+    
+    /**
+     * Generates the puzzle for a seed, stopping when the token says so. Puzzles cut short
+     * are returned but not cached.
+     * @param lexiconName The lexicon name, or null for the default lexicon
+     */
+    public PuzzleSnapshot generatePuzzle(String lexiconName, long seed, CancellationToken token) {
+        LexiconSnapshot lexicon = wordDictionaryService.getLexicon(lexiconName);
+        SeedKey key = new SeedKey(lexicon.getName(), lexicon.getVersion(), seed);
+        
+        CompletableFuture<PuzzleSnapshot> cached;
+        CompletableFuture<PuzzleSnapshot> generating = null;
+        synchronized (seedCache) {
+            cached = seedCache.get(key);
+            if (cached == null) {
+                generating = new CompletableFuture<>();
+                seedCache.put(key, generating);
+            }
+        }
+        if (generating == null) {
+            // Generated already, or being generated by another request
+            return cached.join();
+        }
+        
+        try {
+            PuzzleSnapshot puzzle = generatePuzzle(lexicon, seed, token, null);
+            if (puzzle.isPartial()) {
+                synchronized (seedCache) {
+                    seedCache.remove(key, generating);
+                }
+            }
+            generating.complete(puzzle);
+        } catch (RuntimeException e) {
+            synchronized (seedCache) {
+                seedCache.remove(key, generating);
+            }
+            generating.completeExceptionally(e);
+        }
+        return generating.join();
+    }
+    
+    /**
+     * Generates the puzzle for a seed with placement events, without caching it. If the
+     * token stops generation early, the board built so far is returned and marked partial.
+     */
+    public PuzzleSnapshot generatePuzzle(LexiconSnapshot lexicon, long seed, CancellationToken token,
+                                              Consumer<Map<String, Object>> placementCallback) {
+        PuzzleGenerationContext context = new PuzzleGenerationContext(lexicon, seed, token);
         
         // Send initial progress event
         if (placementCallback != null) {
@@ -48,564 +182,379 @@ public class ScrabblePuzzleService {
         }
         
         // Place words on the board
-        placeWordsOnBoard(placementCallback);
-        
-        // Get all remaining tiles and select 7 random ones
-        List<ScrabbleTile> allRemainingTiles = bag.getRemainingTilesList();
-        List<ScrabbleTile> selectedTiles = selectRandomTiles(allRemainingTiles, 7);
+        placeWordsOnBoard(context, placementCallback);
         
-        // Create response
-        Map<String, Object> puzzle = new HashMap<>();
-        puzzle.put("board", getBoardState());
-        puzzle.put("remainingTiles", selectedTiles);
-        puzzle.put("placedTileCount", board.getPlacedTileCount());
-        puzzle.put("remainingTileCount", allRemainingTiles.size());
-        
-        return puzzle;
+        return createPuzzle(context);
     }
     
     /**
-     * Places valid words on the board using tiles from the bag.
+     * Generates the puzzle for a seed without keeping it in the store, for puzzles that
+     * may never be handed out. Pass it to {@link #storePuzzle(PuzzleSnapshot)} once it is.
      */
-    private void placeWordsOnBoard(Consumer<Map<String, Object>> placementCallback) {
-        // Start with a word that goes through the center
-        String firstWord = getRandomWord(5);
-        placeWordHorizontally(firstWord, 7, 5, placementCallback); // Center row, starting at column 5
-        
-        // Send word completion event
-        if (placementCallback != null) {
-            Map<String, Object> wordCompleteEvent = new HashMap<>();
-            wordCompleteEvent.put("type", "word_complete");
-            wordCompleteEvent.put("word", firstWord);
-            wordCompleteEvent.put("direction", "horizontal");
-            wordCompleteEvent.put("row", 7);
-            wordCompleteEvent.put("col", 5);
-            placementCallback.accept(wordCompleteEvent);
-        }
-        
-        // Place additional words with gameplay simulation
-        placeAdditionalWordsWithGameplay(placementCallback);
+    public PuzzleSnapshot generateUnstoredPuzzle(LexiconSnapshot lexicon, long seed, CancellationToken token) {
+        PuzzleGenerationContext context = new PuzzleGenerationContext(lexicon, seed, token);
+        placeWordsOnBoard(context, null);
+        return new PuzzleSnapshot(0, createCompactPuzzle(context));
     }
     
     /**
-     * Places additional words on the board simulating actual Scrabble gameplay.
-     * Only places tiles one at a time, ensuring all words are connected to existing tiles.
+     * Keeps a puzzle from {@link #generateUnstoredPuzzle} in the store.
+     * @return The puzzle with its ID in the store
      */
-    private void placeAdditionalWordsWithGameplay(Consumer<Map<String, Object>> placementCallback) {
-        int attempts = 0;
-        int maxAttempts = 300; // Increased for more attempts since we're more selective
-        
-        while (board.getPlacedTileCount() < 80 && attempts < maxAttempts && bag.getRemainingTiles() > 15) {
-            attempts++;
-            
-            // Always try to place a word that connects to existing tiles (Scrabble rule)
-            if (placeConnectingWord(placementCallback)) {
-                // Word was placed successfully, send a delay event
-                if (placementCallback != null) {
-                    Map<String, Object> delayEvent = new HashMap<>();
-                    delayEvent.put("type", "delay");
-                    delayEvent.put("duration", 300);
-                    placementCallback.accept(delayEvent);
-                }
-            }
-        }
-        
-        // If we still have too many tiles, place some very simple words that connect
-        while (bag.getRemainingTiles() > 7 && attempts < maxAttempts * 2) {
-            attempts++;
-            if (placeVerySimpleConnectingWords(placementCallback)) {
-                // Word was placed successfully, send a delay event
-                if (placementCallback != null) {
-                    Map<String, Object> delayEvent = new HashMap<>();
-                    delayEvent.put("type", "delay");
-                    delayEvent.put("duration", 200);
-                    placementCallback.accept(delayEvent);
-                }
-            }
-        }
+    public PuzzleSnapshot storePuzzle(PuzzleSnapshot puzzle) {
+        return store(puzzle.getPuzzle());
     }
     
     /**
-     * Places a word that connects to existing tiles on the board (like real Scrabble).
-     * Returns true if a word was placed, false otherwise.
+     * Creates a token that stops generation after a request's timeout.
+     * @param timeoutMillis The timeout, at most {@code wordz.puzzle.timeout-ms}; null for that default
      */
-    private boolean placeConnectingWord(Consumer<Map<String, Object>> placementCallback) {
-        // Try to find a word that can connect to existing tiles
-        String word = getRandomWord(3 + (int)(Math.random() * 4)); // 3-6 letters
-        
-        // Try to find a valid placement that uses existing tiles
-        List<PlacementOption> horizontalPlacements = findValidHorizontalPlacements(word);
-        List<PlacementOption> verticalPlacements = findValidVerticalPlacements(word);
-        
-        // Combine all valid placements
-        List<PlacementOption> allValidPlacements = new ArrayList<>();
-        allValidPlacements.addAll(horizontalPlacements);
-        allValidPlacements.addAll(verticalPlacements);
-        
-        if (!allValidPlacements.isEmpty()) {
-            // Choose a random valid placement
-            PlacementOption placement = allValidPlacements.get((int)(Math.random() * allValidPlacements.size()));
-            
-            // Determine if it's horizontal or vertical placement
-            boolean isHorizontal = horizontalPlacements.contains(placement);
-            
-            if (isHorizontal) {
-                placeWordHorizontally(word, placement.row, placement.col, placementCallback);
-            } else {
-                placeWordVertically(word, placement.row, placement.col, placementCallback);
-            }
-            
-            // Send word completion event
-            if (placementCallback != null) {
-                Map<String, Object> wordCompleteEvent = new HashMap<>();
-                wordCompleteEvent.put("type", "word_complete");
-                wordCompleteEvent.put("word", word);
-                wordCompleteEvent.put("direction", isHorizontal ? "horizontal" : "vertical");
-                wordCompleteEvent.put("row", placement.row);
-                wordCompleteEvent.put("col", placement.col);
-                placementCallback.accept(wordCompleteEvent);
-            }
-            
-            return true;
+    public CancellationToken newCancellationToken(Long timeoutMillis) {
+        if (timeoutMillis != null && timeoutMillis <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
         }
-        return false;
+        long timeout = timeoutMillis != null ? Math.min(timeoutMillis, this.timeoutMillis) : this.timeoutMillis;
+        return CancellationToken.withTimeout(timeout, TimeUnit.MILLISECONDS);
     }
     
     /**
-     * Places very simple 2-3 letter words that connect to existing tiles.
-     * Returns true if a word was placed, false otherwise.
+     * Gets a puzzle with an empty board and a full bag, for callers that have not
+     * generated one yet. It is built once per version of the default lexicon.
      */
-    private boolean placeVerySimpleConnectingWords(Consumer<Map<String, Object>> placementCallback) {
-        String[] simpleWords = {"AT", "IT", "IN", "ON", "TO", "GO", "DO", "BE", "HE", "SHE", "THE", "AND", "FOR", "BUT", "NOT", "HAS", "HAD", "WAS", "ARE", "WERE"};
-        
-        for (String word : simpleWords) {
-            if (bag.getRemainingTiles() <= 7) break;
-            
-            // Try horizontal placement that connects to existing tiles
-            List<PlacementOption> horizontalPlacements = findValidHorizontalPlacements(word);
-            if (!horizontalPlacements.isEmpty()) {
-                PlacementOption placement = horizontalPlacements.get(0);
-                placeWordHorizontally(word, placement.row, placement.col, placementCallback);
-                
-                // Send word completion event
-                if (placementCallback != null) {
-                    Map<String, Object> wordCompleteEvent = new HashMap<>();
-                    wordCompleteEvent.put("type", "word_complete");
-                    wordCompleteEvent.put("word", word);
-                    wordCompleteEvent.put("direction", "horizontal");
-                    wordCompleteEvent.put("row", placement.row);
-                    wordCompleteEvent.put("col", placement.col);
-                    placementCallback.accept(wordCompleteEvent);
-                }
-                
-                return true;
-            }
-            
-            // Try vertical placement that connects to existing tiles
-            List<PlacementOption> verticalPlacements = findValidVerticalPlacements(word);
-            if (!verticalPlacements.isEmpty()) {
-                PlacementOption placement = verticalPlacements.get(0);
-                placeWordVertically(word, placement.row, placement.col, placementCallback);
-                
-                // Send word completion event
-                if (placementCallback != null) {
-                    Map<String, Object> wordCompleteEvent = new HashMap<>();
-                    wordCompleteEvent.put("type", "word_complete");
-                    wordCompleteEvent.put("word", word);
-                    wordCompleteEvent.put("direction", "vertical");
-                    wordCompleteEvent.put("row", placement.row);
-                    wordCompleteEvent.put("col", placement.col);
-                    placementCallback.accept(wordCompleteEvent);
-                }
-                
-                return true;
-            }
-        }
-        return false;
+    public PuzzleSnapshot getEmptyPuzzle() {
+        LexiconSnapshot lexicon = wordDictionaryService.getDefaultLexicon();
+        EmptyPuzzle empty = emptyPuzzle;
+        if (empty == null || empty.lexicon() != lexicon) {
+            // Building it twice in a race gives the same puzzle, so no lock is needed
+            PuzzleGenerationContext context = new PuzzleGenerationContext(lexicon, 0);
+            empty = new EmptyPuzzle(lexicon, new PuzzleSnapshot(0, createCompactPuzzle(context)));
+            emptyPuzzle = empty;
+        }
+        return empty.puzzle();
     }
     
     /**
-     * Finds all valid horizontal placements for a word that use existing tiles.
+     * Gets the premium square layout that compact puzzles refer to by name, as rows of
+     * word and letter multipliers.
      */
-    private List<PlacementOption> findValidHorizontalPlacements(String word) {
-        List<PlacementOption> validPlacements = new ArrayList<>();
-        
-        for (int row = 0; row < 15; row++) {
-            for (int col = 0; col <= 15 - word.length(); col++) {
-                if (canPlaceWordHorizontally(word, row, col) && 
-                    isTrulyConnectedHorizontally(word, row, col) &&
-                    createsValidWordsHorizontally(word, row, col)) {
-                    validPlacements.add(new PlacementOption(row, col));
-                }
+    public Map<String, Object> getLayout() {
+        ScrabbleBoard board = new ScrabbleBoard();
+        List<List<Integer>> wordMultipliers = new ArrayList<>();
+        List<List<Integer>> letterMultipliers = new ArrayList<>();
+        for (int i = 0; i < board.getBoardSize(); i++) {
+            List<Integer> wordRow = new ArrayList<>();
+            List<Integer> letterRow = new ArrayList<>();
+            for (int j = 0; j < board.getBoardSize(); j++) {
+                wordRow.add(board.getWordMultiplier(i, j));
+                letterRow.add(board.getLetterMultiplier(i, j));
             }
+            wordMultipliers.add(wordRow);
+            letterMultipliers.add(letterRow);
         }
         
-        return validPlacements;
+        Map<String, Object> layout = new HashMap<>();
+        layout.put("name", PuzzleSnapshot.LAYOUT);
+        layout.put("size", board.getBoardSize());
+        layout.put("wordMultipliers", wordMultipliers);
+        layout.put("letterMultipliers", letterMultipliers);
+        return layout;
     }
     
     /**
-     * Finds all valid vertical placements for a word that use existing tiles.
+     * Gets a stored puzzle in the same form as a newly generated one. Recently stored and
+     * read puzzles are kept, so polling one is answered without reading the store.
+     * @return The puzzle, or null if there is none with that ID
      */
-    private List<PlacementOption> findValidVerticalPlacements(String word) {
-        List<PlacementOption> validPlacements = new ArrayList<>();
-        
-        for (int row = 0; row <= 15 - word.length(); row++) {
-            for (int col = 0; col < 15; col++) {
-                if (canPlaceWordVertically(word, row, col) && 
-                    isTrulyConnectedVertically(word, row, col) &&
-                    createsValidWordsVertically(word, row, col)) {
-                    validPlacements.add(new PlacementOption(row, col));
-                }
+    public PuzzleSnapshot getStoredPuzzle(long id) {
+        synchronized (storeCache) {
+            PuzzleSnapshot cached = storeCache.get(id);
+            if (cached != null) {
+                return cached;
             }
         }
-        
-        return validPlacements;
+        Puzzle puzzle = puzzleStoreService.find(id);
+        if (puzzle == null) {
+            return null;
+        }
+        return cacheStored(new PuzzleSnapshot(id, puzzle));
     }
     
     /**
-     * Checks if a horizontal word placement uses at least one existing tile.
+     * Creates the response for the state of a generation context and keeps the puzzle
+     * in the store.
      */
-    private boolean usesExistingTileHorizontally(String word, int row, int col) {
-        for (int i = 0; i < word.length(); i++) {
-            if (!board.isEmpty(row, col + i)) {
-                return true;
-            }
-        }
-        return false;
+    PuzzleSnapshot createPuzzle(PuzzleGenerationContext context) {
+        return store(createCompactPuzzle(context));
     }
     
-    /**
-     * Checks if a vertical word placement uses at least one existing tile.
-     */
-    private boolean usesExistingTileVertically(String word, int row, int col) {
-        for (int i = 0; i < word.length(); i++) {
-            if (!board.isEmpty(row + i, col)) {
-                return true;
-            }
+    private PuzzleSnapshot store(Puzzle puzzle) {
+        PuzzleSnapshot snapshot = new PuzzleSnapshot(puzzleStoreService.save(puzzle), puzzle);
+        return snapshot.getId() > 0 ? cacheStored(snapshot) : snapshot;
+    }
+    
+    private PuzzleSnapshot cacheStored(PuzzleSnapshot snapshot) {
+        synchronized (storeCache) {
+            storeCache.put(snapshot.getId(), snapshot);
         }
-        return false;
+        return snapshot;
     }
     
     /**
-     * Checks if placing a word horizontally creates valid words in all directions.
+     * Finds the highest-scoring move for a rack by scoring every legal move, with blanks
+     * played as any letter.
+     * @param rack The rack, with '?' for a blank
+     * @return The best move, or null if the rack has none
      */
-    private boolean createsValidWordsHorizontally(String word, int row, int col) {
-        // Check the complete horizontal word that would be formed (including extensions)
-        String completeHorizontalWord = getCompleteHorizontalWord(word, row, col);
-        if (completeHorizontalWord.length() > 1 && !wordDictionaryService.isValidWord(completeHorizontalWord)) {
-            System.out.println("Invalid horizontal word formed: " + completeHorizontalWord + " from placing " + word + " at (" + row + "," + col + ")");
-            return false;
-        }
-        
-        // Check all vertical words that would be created
-        for (int i = 0; i < word.length(); i++) {
-            if (board.isEmpty(row, col + i)) {
-                // This position will have a new tile, check if it creates a valid vertical word
-                String verticalWord = getVerticalWordAt(row, col + i, word.charAt(i));
-                if (verticalWord.length() > 1 && !wordDictionaryService.isValidWord(verticalWord)) {
-                    System.out.println("Invalid vertical word formed: " + verticalWord + " from placing " + word + " at (" + row + "," + col + ")");
-                    return false;
-                }
+    BestMove findBestMove(ScrabbleBoard board, String rack, MoveGenerator moveGenerator) {
+        int[] letterCounts = new int[26];
+        int blanks = 0;
+        for (int i = 0; i < rack.length(); i++) {
+            if (rack.charAt(i) == '?') {
+                blanks++;
+            } else {
+                letterCounts[rack.charAt(i) - 'A']++;
             }
         }
-        
-        return true;
+        MoveScorer scorer = new MoveScorer();
+        scorer.load(board);
+        BestMoveVisitor visitor = new BestMoveVisitor(scorer);
+        moveGenerator.generate(board, letterCounts, blanks, MoveGenerator.MAX_TILES, visitor);
+        return visitor.getBestMove();
     }
     
     /**
-     * Checks if placing a word vertically creates valid words in all directions.
+     * Keeps the highest-scoring move visited, copying its letters only when it improves.
      */
-    private boolean createsValidWordsVertically(String word, int row, int col) {
-        // Check the complete vertical word that would be formed (including extensions)
-        String completeVerticalWord = getCompleteVerticalWord(word, row, col);
-        if (completeVerticalWord.length() > 1 && !wordDictionaryService.isValidWord(completeVerticalWord)) {
-            System.out.println("Invalid vertical word formed: " + completeVerticalWord + " from placing " + word + " at (" + row + "," + col + ")");
-            return false;
-        }
-        
-        // Check all horizontal words that would be created
-        for (int i = 0; i < word.length(); i++) {
-            if (board.isEmpty(row + i, col)) {
-                // This position will have a new tile, check if it creates a valid horizontal word
-                String horizontalWord = getHorizontalWordAt(row + i, col, word.charAt(i));
-                if (horizontalWord.length() > 1 && !wordDictionaryService.isValidWord(horizontalWord)) {
-                    System.out.println("Invalid horizontal word formed: " + horizontalWord + " from placing " + word + " at (" + row + "," + col + ")");
-                    return false;
-                }
+    private static final class BestMoveVisitor implements MoveVisitor {
+        
+        private final MoveScorer scorer;
+        private final char[] word = new char[15];
+        private int length;
+        private int row;
+        private int col;
+        private boolean horizontal;
+        private int tilesPlaced;
+        private int score = -1;
+        
+        BestMoveVisitor(MoveScorer scorer) {
+            this.scorer = scorer;
+        }
+        
+        @Override
+        public void visit(char[] letters, int length, int row, int col, boolean horizontal, int tilesPlaced) {
+            int moveScore = scorer.score(letters, length, row, col, horizontal, tilesPlaced);
+            if (moveScore > score) {
+                System.arraycopy(letters, 0, word, 0, length);
+                this.length = length;
+                this.row = row;
+                this.col = col;
+                this.horizontal = horizontal;
+                this.tilesPlaced = tilesPlaced;
+                this.score = moveScore;
             }
         }
         
-        return true;
+        BestMove getBestMove() {
+            return score < 0 ? null : new BestMove(new String(word, 0, length), row, col, horizontal, tilesPlaced, score);
+        }
     }
     
     /**
-     * Checks if a horizontal word placement is truly connected to existing tiles.
-     * A word is truly connected if it either:
-     * 1. Uses an existing tile in its placement, OR
-     * 2. Creates a valid word that extends an existing word
+     * Creates the compact form of a generation context's puzzle, with the best move for
+     * its rack. Draws the same rack as {@link #createPuzzle(PuzzleGenerationContext)} would.
      */
-    private boolean isTrulyConnectedHorizontally(String word, int row, int col) {
-        // Check if the word uses any existing tiles
-        boolean usesExistingTile = false;
-        for (int i = 0; i < word.length(); i++) {
-            if (!board.isEmpty(row, col + i)) {
-                usesExistingTile = true;
-                break;
+    Puzzle createCompactPuzzle(PuzzleGenerationContext context) {
+        ScrabbleBoard board = context.getBoard();
+        String[] rows = new String[board.getBoardSize()];
+        char[] row = new char[board.getBoardSize()];
+        for (int i = 0; i < rows.length; i++) {
+            for (int j = 0; j < row.length; j++) {
+                char letter = board.getLetter(i, j, true);
+                row[j] = letter == 0 ? '.' : letter;
             }
+            rows[i] = new String(row);
         }
         
-        if (usesExistingTile) {
-            return true;
-        }
-        
-        // Check if the word extends an existing word horizontally
-        String completeHorizontalWord = getCompleteHorizontalWord(word, row, col);
-        if (completeHorizontalWord.length() > word.length()) {
-            return true;
-        }
-        
-        // Check if the word creates a valid vertical word that extends an existing word
-        for (int i = 0; i < word.length(); i++) {
-            String verticalWord = getVerticalWordAt(row, col + i, word.charAt(i));
-            if (verticalWord.length() > 1) {
-                return true;
-            }
+        StringBuilder rack = new StringBuilder(PUZZLE_TILES);
+        for (ScrabbleTile tile : selectRandomTiles(context.getBag().getRemainingTilesList(), PUZZLE_TILES, context.getRandom())) {
+            rack.append(tile.getLetter() == ' ' ? '?' : tile.getLetter());
         }
         
-        return false;
+        return new Puzzle(context.getSeed(), context.getLexicon().getName(), Arrays.asList(rows), rack.toString(),
+                board.getPlacedTileCount(), context.isPartial(), findBestMove(board, rack.toString(), context.getMoveGenerator()));
     }
     
     /**
-     * Checks if a vertical word placement is truly connected to existing tiles.
-     * A word is truly connected if it either:
-     * 1. Uses an existing tile in its placement, OR
-     * 2. Creates a valid word that extends an existing word
+     * Generates one puzzle in compact form.
      */
-    private boolean isTrulyConnectedVertically(String word, int row, int col) {
-        // Check if the word uses any existing tiles
-        boolean usesExistingTile = false;
-        for (int i = 0; i < word.length(); i++) {
-            if (!board.isEmpty(row + i, col)) {
-                usesExistingTile = true;
-                break;
-            }
-        }
-        
-        if (usesExistingTile) {
-            return true;
-        }
-        
-        // Check if the word extends an existing word vertically
-        String completeVerticalWord = getCompleteVerticalWord(word, row, col);
-        if (completeVerticalWord.length() > word.length()) {
-            return true;
-        }
-        
-        // Check if the word creates a valid horizontal word that extends an existing word
-        for (int i = 0; i < word.length(); i++) {
-            String horizontalWord = getHorizontalWordAt(row + i, col, word.charAt(i));
-            if (horizontalWord.length() > 1) {
-                return true;
-            }
-        }
-        
-        return false;
+    public Puzzle generateCompactPuzzle(LexiconSnapshot lexicon, long seed, CancellationToken token) {
+        PuzzleGenerationContext context = new PuzzleGenerationContext(lexicon, seed, token);
+        placeWordsOnBoard(context, null);
+        return createCompactPuzzle(context);
     }
     
     /**
-     * Gets the vertical word that would be formed at a given position.
+     * Gets an endless, lazy stream of puzzles. Each puzzle is generated only when the stream
+     * pulls it, with its seed drawn from {@code seed}, so a sequential stream always yields
+     * the same puzzles for the same seed. The stream splits for {@code parallel()} by
+     * splitting the seed generator, and is unordered, so pair it with {@code limit()} to
+     * take any n puzzles. Puzzles have no time limit, since one cut short would differ from
+     * the puzzle its seed gives on an idle machine.
      */
-    private String getVerticalWordAt(int row, int col, char newLetter) {
-        StringBuilder word = new StringBuilder();
-        
-        // Go up to find the start of the word
-        int startRow = row;
-        while (startRow > 0 && !board.isEmpty(startRow - 1, col)) {
-            startRow--;
-        }
-        
-        // Build the word from top to bottom
-        for (int r = startRow; r < 15; r++) {
-            if (r == row) {
-                word.append(newLetter);
-            } else if (!board.isEmpty(r, col)) {
-                word.append(board.getTile(r, col).getLetter());
-            } else {
-                break;
-            }
-        }
-        
-        return word.toString();
+    public Stream<Puzzle> puzzles(LexiconSnapshot lexicon, long seed) {
+        return StreamSupport.stream(new PuzzleSpliterator(lexicon, new SplittableRandom(seed), Long.MAX_VALUE), false);
     }
     
     /**
-     * Gets the horizontal word that would be formed at a given position.
+     * Spliterator over an endless sequence of puzzles; halves its size estimate on every
+     * split, like {@link Stream#generate}, so parallel streams divide the work evenly.
      */
-    private String getHorizontalWordAt(int row, int col, char newLetter) {
-        StringBuilder word = new StringBuilder();
+    private final class PuzzleSpliterator implements Spliterator<Puzzle> {
         
-        // Go left to find the start of the word
-        int startCol = col;
-        while (startCol > 0 && !board.isEmpty(row, startCol - 1)) {
-            startCol--;
-        }
+        private final LexiconSnapshot lexicon;
+        private final SplittableRandom seeds;
+        private long estimate;
         
-        // Build the word from left to right
-        for (int c = startCol; c < 15; c++) {
-            if (c == col) {
-                word.append(newLetter);
-            } else if (!board.isEmpty(row, c)) {
-                word.append(board.getTile(row, c).getLetter());
-            } else {
-                break;
-            }
+        PuzzleSpliterator(LexiconSnapshot lexicon, SplittableRandom seeds, long estimate) {
+            this.lexicon = lexicon;
+            this.seeds = seeds;
+            this.estimate = estimate;
         }
         
-        return word.toString();
-    }
-
-    /**
-     * Gets the complete horizontal word that would be formed when placing a word at the given position.
-     * This includes any existing tiles that the new word would extend.
-     */
-    private String getCompleteHorizontalWord(String word, int row, int col) {
-        StringBuilder completeWord = new StringBuilder();
-        
-        // Go left to find the start of any existing word
-        int startCol = col;
-        while (startCol > 0 && !board.isEmpty(row, startCol - 1)) {
-            startCol--;
+        @Override
+        public boolean tryAdvance(Consumer<? super Puzzle> action) {
+            action.accept(generateCompactPuzzle(lexicon, seeds.nextLong(), CancellationToken.none()));
+            return true;
         }
         
-        // Build the complete word from left to right
-        for (int c = startCol; c < 15; c++) {
-            if (c >= col && c < col + word.length()) {
-                // This is where our new word goes
-                completeWord.append(word.charAt(c - col));
-            } else if (!board.isEmpty(row, c)) {
-                // This is an existing tile
-                completeWord.append(board.getTile(row, c).getLetter());
-            } else {
-                break;
+        @Override
+        public Spliterator<Puzzle> trySplit() {
+            if (estimate == 0) {
+                return null;
             }
+            estimate >>>= 1;
+            return new PuzzleSpliterator(lexicon, seeds.split(), estimate);
         }
         
-        return completeWord.toString();
-    }
-
-    /**
-     * Gets the complete vertical word that would be formed when placing a word at the given position.
-     * This includes any existing tiles that the new word would extend.
-     */
-    private String getCompleteVerticalWord(String word, int row, int col) {
-        StringBuilder completeWord = new StringBuilder();
-        
-        // Go up to find the start of any existing word
-        int startRow = row;
-        while (startRow > 0 && !board.isEmpty(startRow - 1, col)) {
-            startRow--;
+        @Override
+        public long estimateSize() {
+            return estimate;
         }
         
-        // Build the complete word from top to bottom
-        for (int r = startRow; r < 15; r++) {
-            if (r >= row && r < row + word.length()) {
-                // This is where our new word goes
-                completeWord.append(word.charAt(r - row));
-            } else if (!board.isEmpty(r, col)) {
-                // This is an existing tile
-                completeWord.append(board.getTile(r, col).getLetter());
-            } else {
-                break;
-            }
+        @Override
+        public int characteristics() {
+            return IMMUTABLE | NONNULL;
         }
-        
-        return completeWord.toString();
     }
     
     /**
-     * Helper class to store placement options.
+     * Places valid words on the board using tiles from the bag, simulating gameplay:
+     * each turn draws a rack, plays one of its legal moves and returns the unused tiles.
+     * Stops once only the puzzle's tiles remain in the bag, no move can be found or the
+     * context's token is cancelled; the token is checked before every rack tried.
      */
-    private static class PlacementOption {
-        final int row;
-        final int col;
+    void placeWordsOnBoard(PuzzleGenerationContext context, Consumer<Map<String, Object>> placementCallback) {
+        ScrabbleBag bag = context.getBag();
         
-        PlacementOption(int row, int col) {
-            this.row = row;
-            this.col = col;
+        while (bag.getRemainingTiles() > PUZZLE_TILES) {
+            if (context.isCancelled()) {
+                // Out of time: keep the board built so far
+                context.markPartial();
+                break;
+            }
+            // Never play so many tiles that fewer than the puzzle's tiles are left
+            int maxTiles = Math.min(MoveGenerator.MAX_TILES, bag.getRemainingTiles() - PUZZLE_TILES);
+            
+            Move move = null;
+            for (int attempt = 0; attempt < RACK_ATTEMPTS && move == null && !context.isCancelled(); attempt++) {
+                List<ScrabbleTile> rack = bag.drawTiles(MoveGenerator.MAX_TILES);
+                move = chooseMove(context, letterCounts(rack), maxTiles);
+                bag.returnTiles(rack);
+            }
+            if (move == null && !context.isCancelled()) {
+                // No rack worked; fall back to every tile left in the bag
+                move = chooseMove(context, bag.getLetterCounts(context.getLetterCounts()), maxTiles);
+            }
+            if (move == null && context.isCancelled()) {
+                context.markPartial();
+                break;
+            }
+            if (move == null) {
+                log.debug("No legal move left with {} tiles in the bag", bag.getRemainingTiles());
+                break;
+            }
+            
+            placeMove(context, move, placementCallback);
         }
     }
     
     /**
-     * Checks if a word can be placed horizontally at the given position.
+     * Picks one of the legal moves for a set of tiles uniformly at random, without
+     * collecting them all.
+     * @return The chosen move, or null if there is none
      */
-    private boolean canPlaceWordHorizontally(String word, int row, int col) {
-        if (col + word.length() > 15) {
-            return false;
-        }
-        
-        // Check if all positions are empty or match the word
-        for (int i = 0; i < word.length(); i++) {
-            ScrabbleTile existingTile = board.getTile(row, col + i);
-            if (existingTile != null && existingTile.getLetter() != word.charAt(i)) {
-                return false;
+    private Move chooseMove(PuzzleGenerationContext context, int[] letterCounts, int maxTiles) {
+        SplittableRandom random = context.getRandom();
+        Move[] chosen = new Move[1];
+        int[] seen = new int[1];
+        context.getMoveGenerator().generate(context.getBoard(), letterCounts, maxTiles, (letters, length, row, col, horizontal, tiles) -> {
+            // Reservoir sampling: keep the n-th move with probability 1/n
+            if (random.nextInt(++seen[0]) == 0) {
+                chosen[0] = new Move(new String(letters, 0, length), row, col, horizontal, tiles);
             }
-        }
-        
-        // Check if we have enough tiles
-        return hasEnoughTilesForWord(word);
+        });
+        return chosen[0];
     }
     
     /**
-     * Checks if a word can be placed vertically at the given position.
+     * Counts the letters in a set of tiles. Blanks are not counted.
      */
-    private boolean canPlaceWordVertically(String word, int row, int col) {
-        if (row + word.length() > 15) {
-            return false;
-        }
-        
-        // Check if all positions are empty or match the word
-        for (int i = 0; i < word.length(); i++) {
-            ScrabbleTile existingTile = board.getTile(row + i, col);
-            if (existingTile != null && existingTile.getLetter() != word.charAt(i)) {
-                return false;
+    private static int[] letterCounts(List<ScrabbleTile> tiles) {
+        int[] counts = new int[26];
+        for (ScrabbleTile tile : tiles) {
+            char letter = tile.getLetter();
+            if (letter >= 'A' && letter <= 'Z') {
+                counts[letter - 'A']++;
             }
         }
-        
-        // Check if we have enough tiles
-        return hasEnoughTilesForWord(word);
+        return counts;
     }
     
     /**
-     * Checks if we have enough tiles to spell the word.
+     * Puts a move's new tiles on the board and reports the word.
      */
-    private boolean hasEnoughTilesForWord(String word) {
-        Map<Character, Integer> availableTiles = new HashMap<>();
-        List<ScrabbleTile> remainingTiles = bag.getRemainingTilesList();
-        
-        for (ScrabbleTile tile : remainingTiles) {
-            char letter = tile.getLetter();
-            availableTiles.put(letter, availableTiles.getOrDefault(letter, 0) + 1);
+    private void placeMove(PuzzleGenerationContext context, Move move, Consumer<Map<String, Object>> placementCallback) {
+        if (move.isHorizontal()) {
+            placeWordHorizontally(context, move.getWord(), move.getRow(), move.getCol(), placementCallback);
+        } else {
+            placeWordVertically(context, move.getWord(), move.getRow(), move.getCol(), placementCallback);
         }
         
-        for (char c : word.toCharArray()) {
-            int count = availableTiles.getOrDefault(c, 0);
-            if (count == 0) {
-                return false;
-            }
-            availableTiles.put(c, count - 1);
+        if (placementCallback != null) {
+            Map<String, Object> wordCompleteEvent = new HashMap<>();
+            wordCompleteEvent.put("type", "word_complete");
+            wordCompleteEvent.put("word", move.getWord());
+            wordCompleteEvent.put("direction", move.isHorizontal() ? "horizontal" : "vertical");
+            wordCompleteEvent.put("row", move.getRow());
+            wordCompleteEvent.put("col", move.getCol());
+            placementCallback.accept(wordCompleteEvent);
+            
+            Map<String, Object> delayEvent = new HashMap<>();
+            delayEvent.put("type", "delay");
+            delayEvent.put("duration", 300);
+            placementCallback.accept(delayEvent);
         }
-        
-        return true;
     }
     
     /**
      * Places a word horizontally on the board.
      */
-    private void placeWordHorizontally(String word, int row, int col, Consumer<Map<String, Object>> placementCallback) {
-        System.out.println("Placing word horizontally: " + word + " at (" + row + "," + col + ")");
+    private void placeWordHorizontally(PuzzleGenerationContext context, String word, int row, int col, Consumer<Map<String, Object>> placementCallback) {
+        ScrabbleBoard board = context.getBoard();
+        log.debug("Placing word horizontally: {} at ({},{})", word, row, col);
         for (int i = 0; i < word.length(); i++) {
             if (board.isEmpty(row, col + i)) {
-                ScrabbleTile tile = findTileForLetter(word.charAt(i));
+                ScrabbleTile tile = context.getBag().removeTileWithLetter(word.charAt(i));
                 if (tile != null) {
                     board.placeTile(row, col + i, tile);
                     
@@ -642,11 +591,12 @@ public class ScrabblePuzzleService {
     /**
      * Places a word vertically on the board.
      */
-    private void placeWordVertically(String word, int row, int col, Consumer<Map<String, Object>> placementCallback) {
-        System.out.println("Placing word vertically: " + word + " at (" + row + "," + col + ")");
+    private void placeWordVertically(PuzzleGenerationContext context, String word, int row, int col, Consumer<Map<String, Object>> placementCallback) {
+        ScrabbleBoard board = context.getBoard();
+        log.debug("Placing word vertically: {} at ({},{})", word, row, col);
         for (int i = 0; i < word.length(); i++) {
             if (board.isEmpty(row + i, col)) {
-                ScrabbleTile tile = findTileForLetter(word.charAt(i));
+                ScrabbleTile tile = context.getBag().removeTileWithLetter(word.charAt(i));
                 if (tile != null) {
                     board.placeTile(row + i, col, tile);
                     
@@ -680,30 +630,16 @@ public class ScrabblePuzzleService {
         }
     }
     
-    /**
-     * Finds and removes a tile with the specified letter from the bag.
-     */
-    private ScrabbleTile findTileForLetter(char letter) {
-        return bag.removeTileWithLetter(letter);
-    }
-    
-    /**
-     * Gets a random word from the dictionary.
-     */
-    private String getRandomWord(int length) {
-        return wordDictionaryService.getRandomWord(length);
-    }
-
     /**
      * Selects a random subset of tiles from the given list.
      * @param tiles The list of tiles to select from
      * @param count The number of tiles to select
+     * @param random The source of randomness
      * @return A list of randomly selected tiles
      */
-    private List<ScrabbleTile> selectRandomTiles(List<ScrabbleTile> tiles, int count) {
+    private List<ScrabbleTile> selectRandomTiles(List<ScrabbleTile> tiles, int count, RandomGenerator random) {
         List<ScrabbleTile> copy = new ArrayList<>(tiles);
         List<ScrabbleTile> selected = new ArrayList<>();
-        Random random = new Random();
         
         int tilesToSelect = Math.min(count, copy.size());
         for (int i = 0; i < tilesToSelect; i++) {
@@ -713,54 +649,4 @@ public class ScrabblePuzzleService {
         
         return selected;
     }
-    
-    /**
-     * Gets the current board state for the response.
-     */
-    private Map<String, Object> getBoardState() {
-        Map<String, Object> boardState = new HashMap<>();
-        boardState.put("size", board.getBoardSize());
-        
-        List<List<Map<String, Object>>> cells = new ArrayList<>();
-        for (int i = 0; i < board.getBoardSize(); i++) {
-            List<Map<String, Object>> row = new ArrayList<>();
-            for (int j = 0; j < board.getBoardSize(); j++) {
-                Map<String, Object> cell = new HashMap<>();
-                ScrabbleTile tile = board.getTile(i, j);
-                
-                if (tile != null) {
-                    cell.put("letter", tile.getLetter());
-                    cell.put("points", tile.getPointValue());
-                    cell.put("hasTile", true);
-                } else {
-                    cell.put("hasTile", false);
-                }
-                
-                cell.put("wordMultiplier", board.getWordMultiplier(i, j));
-                cell.put("letterMultiplier", board.getLetterMultiplier(i, j));
-                
-                row.add(cell);
-            }
-            cells.add(row);
-        }
-        
-        boardState.put("cells", cells);
-        return boardState;
-    }
-    
-    /**
-     * Gets the current puzzle state.
-     */
-    public Map<String, Object> getCurrentPuzzle() {
-        // Get all remaining tiles and select 7 random ones
-        List<ScrabbleTile> allRemainingTiles = bag.getRemainingTilesList();
-        List<ScrabbleTile> selectedTiles = selectRandomTiles(allRemainingTiles, 7);
-        
-        Map<String, Object> puzzle = new HashMap<>();
-        puzzle.put("board", getBoardState());
-        puzzle.put("remainingTiles", selectedTiles);
-        puzzle.put("placedTileCount", board.getPlacedTileCount());
-        puzzle.put("remainingTileCount", allRemainingTiles.size());
-        return puzzle;
-    }
-} 
\ No newline at end of file
+}
@@ -1,51 +1,313 @@
 package dev.newpower.service;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.util.HashSet;
-import java.util.Random;
-import java.util.Set;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+import java.util.random.RandomGenerator;
+import java.util.regex.Pattern;
 
+import dev.newpower.lexicon.BloomFilter;
+import dev.newpower.lexicon.FilteredLexicon;
+import dev.newpower.lexicon.Lexicon;
+import dev.newpower.lexicon.LexiconFile;
+import dev.newpower.lexicon.LexiconSnapshot;
+import dev.newpower.lexicon.PatternIndex;
+import dev.newpower.lexicon.StringSetLexicon;
+import dev.newpower.lexicon.WordGraph;
+import dev.newpower.lexicon.WordListParser;
+import dev.newpower.model.ScrabbleTile;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.env.Environment;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 /**
  * Service for word validation using a dictionary.
+ * <p>
+ * Acts as a registry of named, immutable {@link LexiconSnapshot}s. The bundled words.txt
+ * is always available as the default lexicon; further word lists can be loaded from the
+ * filesystem in the background and are published with a copy-on-write swap, so readers
+ * never block and in-flight requests keep the version they started with.
  */
 @Service
 public class WordDictionaryService {
     
-    private Set<String> validWords;
+    private static final Logger log = LoggerFactory.getLogger(WordDictionaryService.class);
+    private static final Pattern LEXICON_NAME = Pattern.compile("[A-Za-z0-9_-]{1,32}");
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private Environment environment;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${wordz.dictionary.snapshot-dir:}")
+    private String snapshotDir;
+    
+    @Value("${wordz.dictionary.lexicon-dir:}")
+    private String lexiconDir;
+    
+    @Value("${wordz.dictionary.default-lexicon:default}")
+    private String defaultLexiconName;
+    
+    @Value("${wordz.dictionary.lexicon:dawg}")
+    private String lexiconType;
+    
+    @Value("${wordz.dictionary.off-heap:true}")
+    private boolean offHeap;
+    
+    @Value("${wordz.dictionary.bloom-filter-kb:0}")
+    private int bloomFilterKb;
+    
+    private final AtomicReference<Map<String, LexiconSnapshot>> lexicons = new AtomicReference<>(Map.of());
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "lexicon-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Map<String, String> configuredLexicons = Map.of();
     private String[] commonWords;
 
     @PostConstruct
     public void initializeDictionary() {
-        validWords = new HashSet<>();
-        loadDictionary();
         createBasicDictionary();
+        configuredLexicons = Binder.get(environment)
+                .bind("wordz.dictionary.lexicons", Bindable.mapOf(String.class, String.class))
+                .orElse(Map.of());
+        
+        try {
+            publish(loadSnapshot(defaultLexiconName, new ClassPathResource("words.txt")));
+        } catch (IOException e) {
+            // If file not found, fall back to an empty dictionary
+            log.warn("Could not load words.txt, starting with an empty dictionary", e);
+            publish(createSnapshot(defaultLexiconName, 0, WordGraph.build(List.of()), "none", 0));
+        }
+        
+        // Further word lists load in the background and become available when ready
+        for (String name : configuredLexicons.keySet()) {
+            loadLexicon(name);
+        }
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        loader.shutdownNow();
     }
     
     /**
-     * Loads the dictionary from the words.txt file.
+     * Loads or reloads a named lexicon from the filesystem in the background and publishes
+     * it when ready. The word list is taken from {@code wordz.dictionary.lexicons.<name>},
+     * or from {@code <name>.txt} in {@code wordz.dictionary.lexicon-dir}.
+     * @return A future completed with the published snapshot
      */
-    private void loadDictionary() {
-        try {
-            ClassPathResource resource = new ClassPathResource("words.txt");
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    String word = line.trim().toUpperCase();
-                    if (word.length() >= 2 && word.matches("^[A-Z]+$")) {
-                        validWords.add(word);
-                    }
+    public CompletableFuture<LexiconSnapshot> loadLexicon(String name) {
+        Path path = resolveLexiconPath(name);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                LexiconSnapshot snapshot = loadSnapshot(name, new FileSystemResource(path));
+                publish(snapshot);
+                return snapshot;
+            } catch (IOException e) {
+                log.warn("Could not load lexicon {} from {}", name, path, e);
+                throw new IllegalStateException("Could not load lexicon " + name + ": " + e.getMessage(), e);
+            }
+        }, loader);
+    }
+    
+    /**
+     * Gets the current snapshot of a lexicon.
+     * @param name The lexicon name, or null for the default lexicon
+     * @throws IllegalArgumentException if no lexicon with that name has been published
+     */
+    public LexiconSnapshot getLexicon(String name) {
+        String key = name == null || name.isBlank() ? defaultLexiconName : name;
+        LexiconSnapshot snapshot = lexicons.get().get(key);
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Unknown lexicon: " + key);
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Gets the current snapshot of the default lexicon.
+     */
+    public LexiconSnapshot getDefaultLexicon() {
+        return getLexicon(null);
+    }
+    
+    /**
+     * Gets the current snapshot of every published lexicon, by name.
+     */
+    public Map<String, LexiconSnapshot> getLexicons() {
+        return lexicons.get();
+    }
+    
+    /**
+     * Atomically replaces the published snapshot for a lexicon name.
+     */
+    private void publish(LexiconSnapshot snapshot) {
+        Map<String, LexiconSnapshot> previous = lexicons.getAndUpdate(current -> {
+            Map<String, LexiconSnapshot> next = new HashMap<>(current);
+            next.put(snapshot.getName(), snapshot);
+            return Map.copyOf(next);
+        });
+        if (!previous.containsKey(snapshot.getName())) {
+            registerMetrics(snapshot.getName());
+        }
+        log.info("Published lexicon {} ({} words, version {}) from {} in {} ms", snapshot.getName(), snapshot.size(),
+                Long.toHexString(snapshot.getVersion()), snapshot.getSource(), snapshot.getLoadDurationMillis());
+        eventPublisher.publishEvent(new LexiconPublishedEvent(snapshot, previous.get(snapshot.getName())));
+    }
+    
+    private void registerMetrics(String name) {
+        Gauge.builder("wordz.dictionary.words", this, service -> service.getLexicon(name).size())
+                .description("Number of words in the dictionary")
+                .tag("lexicon", name)
+                .register(meterRegistry);
+        TimeGauge.builder("wordz.dictionary.load.duration", this, TimeUnit.MILLISECONDS,
+                        service -> service.getLexicon(name).getLoadDurationMillis())
+                .description("Time taken to load the current version of the dictionary")
+                .tag("lexicon", name)
+                .register(meterRegistry);
+        if (bloomFilterKb <= 0) {
+            return;
+        }
+        // Only the validation API looks words up; puzzle generation reads the word graph directly
+        FunctionCounter.builder("wordz.dictionary.filter.queries", this, service -> service.getFilterStat(name, FilteredLexicon::getQueries))
+                .description("Word validation lookups made through the Bloom filter")
+                .tag("lexicon", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("wordz.dictionary.filter.rejected", this, service -> service.getFilterStat(name, FilteredLexicon::getRejected))
+                .description("Word validation lookups rejected by the Bloom filter alone")
+                .tag("lexicon", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("wordz.dictionary.filter.false.positives", this, service -> service.getFilterStat(name, FilteredLexicon::getFalsePositives))
+                .description("Non-words looked up for validation that the Bloom filter let through")
+                .tag("lexicon", name)
+                .register(meterRegistry);
+        Gauge.builder("wordz.dictionary.filter.false.positive.rate", this, service -> service.getFilterStat(name, FilteredLexicon::getObservedFalsePositiveRate))
+                .description("Share of non-words looked up for validation that the Bloom filter failed to reject")
+                .tag("lexicon", name)
+                .register(meterRegistry);
+    }
+    
+    private double getFilterStat(String name, ToDoubleFunction<FilteredLexicon> stat) {
+        FilteredLexicon filtered = getFilteredLexicon(name);
+        return filtered == null ? 0 : stat.applyAsDouble(filtered);
+    }
+    
+    /**
+     * Gets the Bloom-filtered lexicon used for validation by a lexicon snapshot.
+     * @param name The lexicon name, or null for the default lexicon
+     * @return The filtered lexicon, or null if the filter is disabled
+     */
+    public FilteredLexicon getFilteredLexicon(String name) {
+        return getLexicon(name).getLexicon() instanceof FilteredLexicon filtered ? filtered : null;
+    }
+    
+    private Path resolveLexiconPath(String name) {
+        if (name == null || !LEXICON_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid lexicon name: " + name);
+        }
+        String configured = configuredLexicons.get(name);
+        if (configured != null) {
+            return Path.of(configured);
+        }
+        if (lexiconDir.isBlank()) {
+            throw new IllegalArgumentException("Unknown lexicon: " + name);
+        }
+        Path path = Path.of(lexiconDir).resolve(name + ".txt");
+        if (!Files.isRegularFile(path)) {
+            throw new IllegalArgumentException("No word list for lexicon " + name + " in " + lexiconDir);
+        }
+        return path;
+    }
+    
+    /**
+     * Loads a word list, preferring a compiled snapshot of it and falling back to
+     * parsing the text when the compiled snapshot is missing or stale.
+     */
+    private LexiconSnapshot loadSnapshot(String name, Resource resource) throws IOException {
+        long start = System.nanoTime();
+        long checksum;
+        try (InputStream in = resource.getInputStream()) {
+            checksum = LexiconFile.checksum(in);
+        }
+        
+        Path compiled = snapshotDir.isBlank() ? null : Path.of(snapshotDir).resolve(name + ".dawg");
+        WordGraph graph = compiled == null ? null : LexiconFile.map(compiled, checksum);
+        String source = "snapshot " + compiled;
+        if (graph == null) {
+            try (InputStream in = resource.getInputStream()) {
+                graph = WordGraph.build(WordListParser.parse(in, 2));
+            }
+            source = resource.getDescription();
+            if (compiled != null) {
+                try {
+                    LexiconFile.write(compiled, checksum, graph);
+                    log.info("Wrote dictionary snapshot {}", compiled);
+                } catch (IOException e) {
+                    log.warn("Could not write dictionary snapshot {}", compiled, e);
                 }
             }
-        } catch (IOException e) {
-            // If file not found, create a basic dictionary with common words
-            createBasicDictionary();
+        }
+        return createSnapshot(name, checksum, graph, source, start);
+    }
+    
+    private LexiconSnapshot createSnapshot(String name, long version, WordGraph graph, String source, long startNanos) {
+        if (offHeap) {
+            graph = graph.toOffHeap();
+        }
+        Lexicon lexicon = createLexicon(graph);
+        if (bloomFilterKb > 0) {
+            lexicon = new FilteredLexicon(lexicon, BloomFilter.build(lexicon, bloomFilterKb * 1024 * 8));
+        }
+        PatternIndex patternIndex = PatternIndex.build(graph.forward());
+        long durationMillis = startNanos == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return new LexiconSnapshot(name, version, graph, lexicon, patternIndex, source, durationMillis);
+    }
+    
+    /**
+     * Creates the lexicon used for word validation, as selected by
+     * {@code wordz.dictionary.lexicon}.
+     */
+    private Lexicon createLexicon(WordGraph graph) {
+        switch (lexiconType) {
+            case "dawg":
+                return graph.forward();
+            case "strings":
+                return StringSetLexicon.copyOf(graph.forward());
+            default:
+                throw new IllegalStateException("Unknown lexicon type: " + lexiconType + " (expected dawg or strings)");
         }
     }
     
@@ -156,13 +418,43 @@ public class WordDictionaryService {
         if (word == null || word.trim().isEmpty()) {
             return false;
         }
-        return validWords.contains(word.toUpperCase().trim());
+        return getDefaultLexicon().isValidWord(word.trim());
+    }
+    
+    /**
+     * Checks if a sequence of letters is a valid word without trimming, changing case
+     * or copying it first.
+     */
+    public boolean isValidWord(CharSequence word) {
+        return getDefaultLexicon().isValidWord(word);
+    }
+    
+    /**
+     * Checks if the letters {@code letters[offset, offset + length)} form a valid word.
+     * With the default lexicon this does not allocate.
+     */
+    public boolean isValidWord(char[] letters, int offset, int length) {
+        return getDefaultLexicon().isValidWord(letters, offset, length);
+    }
+    
+    /**
+     * Checks if any word in the dictionary starts with the given letters.
+     */
+    public boolean isValidPrefix(String prefix) {
+        return prefix != null && getDefaultLexicon().getLexicon().containsPrefix(prefix.trim());
     }
     
     /**
      * Gets a random valid word of specified length.
      */
     public String getRandomWord(int length) {
+        return getRandomWord(length, ThreadLocalRandom.current());
+    }
+    
+    /**
+     * Gets a random valid word of specified length, drawn from the given source of randomness.
+     */
+    public String getRandomWord(int length, RandomGenerator random) {
         // Filter common words by length and return a random one
         String[] wordsOfLength = java.util.Arrays.stream(commonWords)
                 .filter(word -> word.length() == length)
@@ -173,14 +465,92 @@ public class WordDictionaryService {
             return "HELLO".substring(0, Math.min(length, 5));
         }
         
-        int randomIndex = new Random().nextInt(wordsOfLength.length);
+        int randomIndex = random.nextInt(wordsOfLength.length);
         return wordsOfLength[randomIndex];
     }
     
+    /**
+     * Gets the forward/reverse word graphs used for letter-by-letter move generation.
+     */
+    public WordGraph getWordGraph() {
+        return getDefaultLexicon().getWordGraph();
+    }
+    
+    /**
+     * Gets the letters that can be placed between two partial words so that
+     * {@code before + letter + after} is valid.
+     * @return A bit mask of letters (bit 0 = A, bit 25 = Z)
+     */
+    public int getCrossCheckLetters(String before, String after) {
+        return getWordGraph().crossCheck(before, after);
+    }
+    
+    /**
+     * Finds every word of two or more letters that can be spelled from a rack.
+     * @param rack Rack letters; ' ', '?' and '_' are blanks
+     * @return Matching words, longest first, with blank-played letters in lower case
+     */
+    public List<String> findWords(String rack) {
+        return findWords(rack, 2, false);
+    }
+    
+    /**
+     * Finds words that can be spelled from a rack.
+     * @param rack Rack letters; ' ', '?' and '_' are blanks
+     * @param minLength Shortest word to return
+     * @param useAllTiles If true, only return full anagrams of the rack
+     * @return Matching words, longest first, with blank-played letters in lower case
+     */
+    public List<String> findWords(String rack, int minLength, boolean useAllTiles) {
+        return getDefaultLexicon().findWords(rack, minLength, useAllTiles);
+    }
+    
+    /**
+     * Finds every word of two or more letters that can be spelled from a rack of tiles,
+     * such as one drawn from a {@link dev.newpower.model.ScrabbleBag}.
+     */
+    public List<String> findWords(List<ScrabbleTile> rack) {
+        StringBuilder letters = new StringBuilder(rack.size());
+        for (ScrabbleTile tile : rack) {
+            letters.append(tile.getLetter());
+        }
+        return findWords(letters.toString());
+    }
+    
+    /**
+     * Finds words matching a positional pattern such as {@code "?A??E"}.
+     * @param pattern Letters are fixed; '?', '.' and '_' match any letter
+     * @param limit Maximum number of words to return
+     */
+    public List<String> findPattern(String pattern, int limit) {
+        return getDefaultLexicon().findPattern(pattern, limit);
+    }
+    
+    /**
+     * Gets the positional index used for pattern queries and slot filling.
+     */
+    public PatternIndex getPatternIndex() {
+        return getDefaultLexicon().getPatternIndex();
+    }
+    
+    /**
+     * Gets the lexicon used for word validation.
+     */
+    public Lexicon getLexicon() {
+        return getDefaultLexicon().getLexicon();
+    }
+    
+    /**
+     * Gets the configured lexicon representation name.
+     */
+    public String getLexiconType() {
+        return lexiconType;
+    }
+    
     /**
      * Gets the number of words in the dictionary.
      */
     public int getDictionarySize() {
-        return validWords.size();
+        return getDefaultLexicon().size();
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,372 @@
+package dev.newpower.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import dev.newpower.model.BestMove;
+import dev.newpower.model.Puzzle;
+
+/**
+ * Append-only file of puzzles, looked up by ID through a memory-mapped offset index.
+ * <p>
+ * Puzzles are appended to {@code puzzles.dat} as length- and CRC-prefixed records and never
+ * rewritten. {@code puzzles.idx} holds the number of puzzles followed by the offset of each
+ * record, so a lookup is one read from the mapped index and one positional read from the
+ * data file. Appends collect in a write buffer that is written out when full or on
+ * {@link #sync()}, which also forces both files to disk.
+ * <p>
+ * IDs start at 1 and are never reused. The index count is the highest ID issued, and it
+ * is written to the mapped index as soon as a puzzle is appended, so it survives the
+ * process even when the puzzle was still in the write buffer. On open, the IDs whose
+ * records never reached the disk are marked lost, and they read as missing rather than
+ * going to the next puzzle appended. Records that reached the disk but were never indexed
+ * are indexed again after the highest ID, and a torn last record is cut off. A store is
+ * safe to share between threads and is locked against other processes.
+ */
+public final class PuzzleStore implements Closeable {
+
+    private static final int MAGIC = 0x575A5031; // "WZP1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int DATA_HEADER_BYTES = 8;
+    private static final int INDEX_HEADER_BYTES = 16;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 1024;
+    private static final int PARTIAL = 1;
+    private static final int BEST_MOVE = 2;
+    private static final int HORIZONTAL = 4;
+    private static final int INITIAL_INDEX_CAPACITY = 1 << 16;
+    private static final int BOARD_SIZE = 15;
+    // Index entry of an ID whose record was lost in a crash; no record starts in the header
+    private static final long LOST = 0;
+
+    private final FileChannel data;
+    private final FileChannel indexChannel;
+    private final FileLock lock;
+    private final ByteBuffer writeBuffer = ByteBuffer.allocate(1 << 16);
+    private MappedByteBuffer index;
+    private long indexCapacity;
+    private long count;
+    private long dataSize;
+    private long flushedSize;
+
+    private PuzzleStore(FileChannel data, FileChannel indexChannel, FileLock lock) {
+        this.data = data;
+        this.indexChannel = indexChannel;
+        this.lock = lock;
+    }
+
+    /**
+     * Opens the store in a directory, creating it if needed and recovering from an
+     * unclean shutdown.
+     * @throws IOException If the files cannot be opened, are not a puzzle store, or are in
+     *         use by another store
+     */
+    public static PuzzleStore open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel data = FileChannel.open(directory.resolve("puzzles.dat"),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel indexChannel = null;
+        try {
+            FileLock lock;
+            try {
+                lock = data.tryLock();
+            } catch (OverlappingFileLockException e) {
+                lock = null;
+            }
+            if (lock == null) {
+                throw new IOException("Puzzle store in " + directory + " is already in use");
+            }
+            indexChannel = FileChannel.open(directory.resolve("puzzles.idx"),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            PuzzleStore store = new PuzzleStore(data, indexChannel, lock);
+            store.recover();
+            return store;
+        } catch (IOException | RuntimeException e) {
+            data.close();
+            if (indexChannel != null) {
+                indexChannel.close();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Appends a puzzle.
+     * @return The puzzle's ID
+     */
+    public synchronized long append(Puzzle puzzle) throws IOException {
+        byte[] payload = encode(puzzle);
+        if (writeBuffer.remaining() < RECORD_HEADER_BYTES + payload.length) {
+            flush();
+        }
+        writeBuffer.putInt(payload.length).putInt(checksum(payload, payload.length)).put(payload);
+
+        ensureIndexCapacity(count + 1);
+        index.putLong(offsetPosition(count), dataSize);
+        dataSize += RECORD_HEADER_BYTES + payload.length;
+        count++;
+        index.putLong(8, count);
+        return count;
+    }
+
+    /**
+     * Gets a puzzle by ID.
+     * @return The puzzle, or null if there is no puzzle with that ID
+     */
+    public Puzzle get(long id) throws IOException {
+        long offset;
+        synchronized (this) {
+            if (id < 1 || id > count) {
+                return null;
+            }
+            offset = index.getLong(offsetPosition(id - 1));
+            if (offset == LOST) {
+                return null;
+            }
+            if (offset >= flushedSize) {
+                // Still in the write buffer
+                int position = (int) (offset - flushedSize);
+                int length = writeBuffer.getInt(position);
+                byte[] payload = new byte[length];
+                writeBuffer.get(position + RECORD_HEADER_BYTES, payload);
+                return decode(ByteBuffer.wrap(payload));
+            }
+        }
+        ByteBuffer header = read(offset, RECORD_HEADER_BYTES);
+        return decode(read(offset + RECORD_HEADER_BYTES, header.getInt(0)));
+    }
+
+    /**
+     * Gets the highest ID issued. IDs lost in a crash are counted, so this can be more
+     * than the number of puzzles that can be read.
+     */
+    public synchronized long size() {
+        return count;
+    }
+
+    /**
+     * Writes out buffered puzzles and forces the data and the index to disk.
+     */
+    public synchronized void sync() throws IOException {
+        flush();
+        data.force(false);
+        index.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            sync();
+            lock.release();
+        } finally {
+            data.close();
+            indexChannel.close();
+        }
+    }
+
+    private void recover() throws IOException {
+        long size = data.size();
+        if (size == 0) {
+            ByteBuffer header = ByteBuffer.allocate(DATA_HEADER_BYTES).putInt(MAGIC).putInt(FORMAT_VERSION).flip();
+            data.write(header, 0);
+            size = DATA_HEADER_BYTES;
+        } else {
+            ByteBuffer header = read(0, DATA_HEADER_BYTES);
+            if (size < DATA_HEADER_BYTES || header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION) {
+                throw new IOException("Not a puzzle store data file");
+            }
+        }
+
+        boolean newIndex = indexChannel.size() < INDEX_HEADER_BYTES;
+        indexCapacity = Math.max(INITIAL_INDEX_CAPACITY, (indexChannel.size() - INDEX_HEADER_BYTES) / Long.BYTES);
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, offsetPosition(indexCapacity));
+        long indexed = 0;
+        if (newIndex) {
+            index.putInt(0, MAGIC).putInt(4, FORMAT_VERSION);
+        } else if (index.getInt(0) != MAGIC || index.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a puzzle store index file");
+        } else {
+            indexed = Math.min(Math.max(index.getLong(8), 0), indexCapacity);
+        }
+
+        // Mark the IDs after the last intact record as lost, so they are never issued again
+        long intact = indexed;
+        while (intact > 0 && recordEnd(index.getLong(offsetPosition(intact - 1)), size) < 0) {
+            intact--;
+        }
+        for (long entry = intact; entry < indexed; entry++) {
+            index.putLong(offsetPosition(entry), LOST);
+        }
+        if (intact < indexed) {
+            // Lost entries must be on disk before their space in the data file is reused
+            index.force();
+        }
+
+        // Index records that reached the disk after the index did
+        long position = intact == 0 ? DATA_HEADER_BYTES : recordEnd(index.getLong(offsetPosition(intact - 1)), size);
+        long end;
+        while ((end = recordEnd(position, size)) >= 0) {
+            ensureIndexCapacity(indexed + 1);
+            index.putLong(offsetPosition(indexed++), position);
+            position = end;
+        }
+        data.truncate(position);
+        count = indexed;
+        index.putLong(8, count);
+        dataSize = position;
+        flushedSize = position;
+    }
+
+    /**
+     * Gets the end of the intact record at a position in the data file.
+     * @return The offset just past the record, or -1 if there is no intact record there
+     */
+    private long recordEnd(long position, long size) throws IOException {
+        if (position < DATA_HEADER_BYTES || position + RECORD_HEADER_BYTES > size) {
+            return -1;
+        }
+        ByteBuffer header = read(position, RECORD_HEADER_BYTES);
+        int length = header.getInt(0);
+        if (length <= 0 || length > MAX_RECORD_BYTES || position + RECORD_HEADER_BYTES + length > size) {
+            return -1;
+        }
+        ByteBuffer payload = read(position + RECORD_HEADER_BYTES, length);
+        if (checksum(payload.array(), length) != header.getInt(4)) {
+            return -1;
+        }
+        return position + RECORD_HEADER_BYTES + length;
+    }
+
+    private void flush() throws IOException {
+        writeBuffer.flip();
+        while (writeBuffer.hasRemaining()) {
+            flushedSize += data.write(writeBuffer, flushedSize);
+        }
+        writeBuffer.clear();
+    }
+
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (data.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of puzzle store at " + position);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private void ensureIndexCapacity(long entries) throws IOException {
+        if (entries > indexCapacity) {
+            while (entries > indexCapacity) {
+                indexCapacity *= 2;
+            }
+            index.force();
+            index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, offsetPosition(indexCapacity));
+        }
+    }
+
+    /**
+     * Gets the position of an index entry. A mapping holds at most 2 GB, which caps the
+     * store at about 268 million puzzles.
+     */
+    private static int offsetPosition(long entry) {
+        return Math.toIntExact(INDEX_HEADER_BYTES + entry * Long.BYTES);
+    }
+
+    private static int checksum(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Encodes a puzzle as its seed, flags, lexicon name, a 15-bit occupancy mask per row,
+     * one byte per placed letter in row order, the rack and, when the rack has a move, the
+     * best move's word, square, tile count and score. Records written before best moves were
+     * kept have no best move flag and decode without one.
+     */
+    static byte[] encode(Puzzle puzzle) {
+        byte[] lexicon = puzzle.lexicon().getBytes(StandardCharsets.US_ASCII);
+        byte[] rack = puzzle.rack().getBytes(StandardCharsets.US_ASCII);
+        BestMove bestMove = puzzle.bestMove();
+        byte[] word = bestMove != null ? bestMove.word().getBytes(StandardCharsets.US_ASCII) : new byte[0];
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 2 + lexicon.length + BOARD_SIZE * 2
+                + BOARD_SIZE * BOARD_SIZE + 1 + rack.length + 1 + word.length + 5);
+        buffer.putLong(puzzle.seed());
+        int flags = puzzle.partial() ? PARTIAL : 0;
+        if (bestMove != null) {
+            flags |= BEST_MOVE | (bestMove.horizontal() ? HORIZONTAL : 0);
+        }
+        buffer.put((byte) flags);
+        buffer.put((byte) lexicon.length).put(lexicon);
+        for (String row : puzzle.board()) {
+            int occupied = 0;
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                if (row.charAt(col) != '.') {
+                    occupied |= 1 << col;
+                }
+            }
+            buffer.putShort((short) occupied);
+        }
+        for (String row : puzzle.board()) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                if (row.charAt(col) != '.') {
+                    buffer.put((byte) row.charAt(col));
+                }
+            }
+        }
+        buffer.put((byte) rack.length).put(rack);
+        if (bestMove != null) {
+            buffer.put((byte) word.length).put(word);
+            buffer.put((byte) bestMove.row()).put((byte) bestMove.col()).put((byte) bestMove.tilesPlaced());
+            buffer.putShort((short) bestMove.score());
+        }
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    static Puzzle decode(ByteBuffer buffer) {
+        long seed = buffer.getLong();
+        int flags = buffer.get();
+        byte[] lexicon = new byte[buffer.get()];
+        buffer.get(lexicon);
+        int[] occupancy = new int[BOARD_SIZE];
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            occupancy[row] = buffer.getShort() & 0xFFFF;
+        }
+        List<String> board = new ArrayList<>(BOARD_SIZE);
+        char[] letters = new char[BOARD_SIZE];
+        int placed = 0;
+        for (int row = 0; row < BOARD_SIZE; row++) {
+            for (int col = 0; col < BOARD_SIZE; col++) {
+                letters[col] = (occupancy[row] & (1 << col)) != 0 ? (char) buffer.get() : '.';
+            }
+            placed += Integer.bitCount(occupancy[row]);
+            board.add(new String(letters));
+        }
+        byte[] rack = new byte[buffer.get()];
+        buffer.get(rack);
+        BestMove bestMove = null;
+        if ((flags & BEST_MOVE) != 0) {
+            byte[] word = new byte[buffer.get()];
+            buffer.get(word);
+            bestMove = new BestMove(new String(word, StandardCharsets.US_ASCII), buffer.get(), buffer.get(),
+                    (flags & HORIZONTAL) != 0, buffer.get(), buffer.getShort() & 0xFFFF);
+        }
+        return new Puzzle(seed, new String(lexicon, StandardCharsets.US_ASCII), board,
+                new String(rack, StandardCharsets.US_ASCII), placed, (flags & PARTIAL) != 0, bestMove);
+    }
+}
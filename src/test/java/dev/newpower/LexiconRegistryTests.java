@@ -0,0 +1,115 @@
+package dev.newpower;
+
+import dev.newpower.lexicon.LexiconSnapshot;
+import dev.newpower.service.LexiconPublishedEvent;
+import dev.newpower.service.WordDictionaryService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@SpringBootTest(properties = {
+        "wordz.dictionary.snapshot-dir=",
+        "wordz.puzzle.store.dir="
+})
+class LexiconRegistryTests {
+
+    @TempDir
+    static Path lexiconDir;
+
+    @DynamicPropertySource
+    static void lexiconProperties(DynamicPropertyRegistry registry) {
+        registry.add("wordz.dictionary.lexicon-dir", lexiconDir::toString);
+    }
+
+    @Autowired
+    private WordDictionaryService wordDictionaryService;
+
+    @Autowired
+    private PublishedEvents events;
+
+    @Test
+    void testLoadAndReload() throws Exception {
+        writeWordList("reload", "cat\ndog\n");
+        LexiconSnapshot first = wordDictionaryService.loadLexicon("reload").get();
+        assertSame(first, wordDictionaryService.getLexicon("reload"), "A loaded lexicon should be published");
+        assertTrue(first.isValidWord("DOG"), "Words from the list should be valid");
+        assertFalse(first.isValidWord("BIRD"), "Words not in the list should not be valid");
+        assertEquals(List.of(first), publishedSnapshots("reload"), "Loading should publish one event");
+        assertNull(publishedEvents("reload").get(0).getPrevious(), "A new lexicon should replace nothing");
+
+        writeWordList("reload", "cat\nbird\n");
+        LexiconSnapshot second = wordDictionaryService.loadLexicon("reload").get();
+        assertSame(second, wordDictionaryService.getLexicon("reload"), "A reloaded lexicon should replace the old one");
+        assertNotEquals(first.getVersion(), second.getVersion(), "A changed list should get a new version");
+        assertTrue(second.isValidWord("BIRD"), "The reloaded list should be used");
+        assertFalse(second.isValidWord("DOG"), "Words dropped from the list should no longer be valid");
+        assertSame(first, publishedEvents("reload").get(1).getPrevious(), "The event should name the replaced snapshot");
+
+        // Requests that took the old snapshot keep using it
+        assertTrue(first.isValidWord("DOG"), "The old snapshot should still hold its words");
+        assertFalse(first.isValidWord("BIRD"), "The old snapshot should not see the new words");
+        assertTrue(wordDictionaryService.getDefaultLexicon().isValidWord("CAT"), "Other lexicons should be left alone");
+    }
+
+    @Test
+    void testUnknownAndInvalidNames() {
+        assertThrows(IllegalArgumentException.class, () -> wordDictionaryService.getLexicon("unloaded"),
+                "An unpublished lexicon should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> wordDictionaryService.loadLexicon("missing"),
+                "A lexicon without a word list should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> wordDictionaryService.loadLexicon("../words"),
+                "Names that could leave the lexicon directory should be rejected");
+        assertThrows(IllegalArgumentException.class, () -> wordDictionaryService.loadLexicon(null),
+                "A lexicon needs a name to be loaded");
+        assertFalse(wordDictionaryService.getLexicons().containsKey("missing"), "Nothing should be published");
+    }
+
+    private List<LexiconPublishedEvent> publishedEvents(String name) {
+        return events.events.stream()
+                .filter(event -> event.getSnapshot().getName().equals(name))
+                .toList();
+    }
+
+    private List<LexiconSnapshot> publishedSnapshots(String name) {
+        return publishedEvents(name).stream().map(LexiconPublishedEvent::getSnapshot).toList();
+    }
+
+    private static void writeWordList(String name, String words) throws IOException {
+        Files.writeString(lexiconDir.resolve(name + ".txt"), words);
+    }
+
+    /**
+     * Collects lexicon events, which are published on the loader thread.
+     */
+    static final class PublishedEvents {
+
+        final List<LexiconPublishedEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void onPublished(LexiconPublishedEvent event) {
+            events.add(event);
+        }
+    }
+
+    @TestConfiguration
+    static class EventsConfig {
+
+        @Bean
+        PublishedEvents publishedEvents() {
+            return new PublishedEvents();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package dev.newpower;
+
+import com.jayway.jsonpath.JsonPath;
+import dev.newpower.controller.PuzzleSnapshotHttpMessageConverter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+@SpringBootTest(properties = "wordz.puzzle.store.dir=target/test-puzzles/${random.uuid}")
+@AutoConfigureMockMvc
+class PuzzleControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PuzzleSnapshotHttpMessageConverter puzzleConverter;
+
+    @Test
+    void testCurrentPuzzleWithoutSession() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/puzzle/current"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.SET_COOKIE))
+                .andExpect(jsonPath("$.placedTileCount").value(0))
+                .andReturn();
+        assertNull(first.getRequest().getSession(false), "Polling without a session should not start one");
+
+        String eTag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/puzzle/current"))
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+    }
+
+    @Test
+    void testCborNegotiation() throws Exception {
+        long id = generate();
+        MvcResult cbor = mockMvc.perform(get("/api/puzzle/{id}", id).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-cbor\"")))
+                .andReturn();
+        byte[] body = cbor.getResponse().getContentAsByteArray();
+        assertEquals(0xA0, body[0] & 0xE0, "The body should be a CBOR map");
+        assertTrue(body.length < 1024, "The compact form should be sent");
+
+        // The web client's fetch() sends */*, and must still get the JSON it reads
+        for (String accept : new String[] {"*/*", MediaType.APPLICATION_JSON_VALUE}) {
+            mockMvc.perform(get("/api/puzzle/{id}", id).accept(accept))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(header().string(HttpHeaders.ETAG, not(endsWith("-cbor\""))))
+                    .andExpect(jsonPath("$.board.cells[7][7].wordMultiplier").value(2));
+        }
+        mockMvc.perform(get("/api/puzzle/{id}", id))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        mockMvc.perform(post("/api/puzzle/generate").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"));
+        // Other responses go through the object mapper
+        mockMvc.perform(get("/api/puzzle/layout").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"));
+    }
+
+    @Test
+    void testNotModified() throws Exception {
+        long id = generate();
+        String eTag = mockMvc.perform(get("/api/puzzle/{id}", id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag, "A puzzle should carry an entity tag");
+
+        mockMvc.perform(get("/api/puzzle/{id}", id).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT_ENCODING)))
+                .andExpect(content().bytes(new byte[0]));
+        mockMvc.perform(get("/api/puzzle/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "W/" + eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/puzzle/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0000000000000000\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testGzip() throws Exception {
+        long id = generate();
+        MvcResult gzipped = mockMvc.perform(get("/api/puzzle/{id}", id).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.ETAG, endsWith("-gzip\"")))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)))
+                .andReturn();
+        byte[] body = gzipped.getResponse().getContentAsByteArray();
+        assertEquals(body.length, gzipped.getResponse().getContentLength(), "The length should be that of the compressed body");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(id, ((Number) JsonPath.read(new String(in.readAllBytes(), StandardCharsets.UTF_8), "$.id")).longValue(),
+                    "The body should be the compressed puzzle");
+        }
+
+        String gzipTag = gzipped.getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get("/api/puzzle/{id}", id).header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, gzipTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, gzipTag));
+        mockMvc.perform(get("/api/puzzle/{id}", id).header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    @Test
+    void testSmallResponsesAreNotCompressed() throws Exception {
+        long id = generate();
+        int minSize = (int) ReflectionTestUtils.getField(puzzleConverter, "compressionMinSize");
+        ReflectionTestUtils.setField(puzzleConverter, "compressionMinSize", Integer.MAX_VALUE);
+        try {
+            mockMvc.perform(get("/api/puzzle/{id}", id).header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                    .andExpect(header().string(HttpHeaders.ETAG, not(endsWith("-gzip\""))))
+                    .andExpect(jsonPath("$.id").value(id));
+        } finally {
+            ReflectionTestUtils.setField(puzzleConverter, "compressionMinSize", minSize);
+        }
+    }
+
+    private long generate() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/puzzle/generate"))
+                .andExpect(status().isOk())
+                .andReturn();
+        return ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.id")).longValue();
+    }
+}
@@ -0,0 +1,52 @@
+package dev.newpower;
+
+import dev.newpower.model.PuzzleSnapshot;
+import dev.newpower.service.CancellationToken;
+import dev.newpower.service.PuzzlePoolService;
+import dev.newpower.service.ScrabblePuzzleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "wordz.puzzle.pool.enabled=true",
+        "wordz.puzzle.pool.capacity=4",
+        "wordz.puzzle.pool.low-water-mark=2",
+        "wordz.puzzle.store.dir=target/test-puzzles/${random.uuid}"
+})
+class PuzzlePoolTests {
+
+    @Autowired
+    private PuzzlePoolService puzzlePoolService;
+
+    @Autowired
+    private ScrabblePuzzleService puzzleService;
+
+    @Test
+    void testPoolFillsAndServesPuzzles() throws InterruptedException {
+        waitForSize(2);
+        PuzzleSnapshot puzzle = puzzlePoolService.take(null, CancellationToken.none());
+        assertEquals(100, puzzle.getPlacedTileCount() + puzzle.getRemainingTileCount(),
+                "Pooled puzzle should be complete");
+        assertTrue(puzzlePoolService.getHitRatio() > 0, "Puzzle should have come from the pool");
+        // Nothing else is handed out here, so every puzzle still waiting in the pool is unstored
+        assertEquals(1, puzzle.getId(), "Only puzzles handed out should be stored");
+        assertEquals(puzzle, puzzleService.getStoredPuzzle(puzzle.getId()), "The handed-out puzzle should be stored");
+    }
+
+    @Test
+    void testDrainRefills() throws InterruptedException {
+        waitForSize(2);
+        assertTrue(puzzlePoolService.drain() > 0, "Drain should discard pooled puzzles");
+        waitForSize(4);
+    }
+
+    private void waitForSize(int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (puzzlePoolService.size() < size && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(puzzlePoolService.size() >= size, "Pool should refill to " + size + " puzzles");
+    }
+}
@@ -1,13 +1,161 @@
 package dev.newpower;
 
+import dev.newpower.lexicon.LexiconSnapshot;
+import dev.newpower.model.Puzzle;
+import dev.newpower.model.PuzzleSnapshot;
+import dev.newpower.service.BestOfPuzzleService;
+import dev.newpower.service.BulkPuzzleService;
+import dev.newpower.service.CancellationToken;
+import dev.newpower.service.PuzzleStoreService;
+import dev.newpower.service.ScrabblePuzzleService;
+import dev.newpower.service.WordDictionaryService;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import static org.junit.jupiter.api.Assertions.*;
 
-@SpringBootTest
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@SpringBootTest(properties = "wordz.puzzle.store.dir=target/test-puzzles/${random.uuid}")
 class WordzApplicationTests {
 
+    @Autowired
+    private ScrabblePuzzleService puzzleService;
+
+    @Autowired
+    private WordDictionaryService wordDictionaryService;
+
+    @Autowired
+    private BestOfPuzzleService bestOfPuzzleService;
+
+    @Autowired
+    private BulkPuzzleService bulkPuzzleService;
+
+    @Autowired
+    private PuzzleStoreService puzzleStoreService;
+
     @Test
     void contextLoads() {
     }
 
-} 
\ No newline at end of file
+    @Test
+    void testConcurrentGeneration() {
+        LexiconSnapshot lexicon = wordDictionaryService.getDefaultLexicon();
+        List<Puzzle> concurrent = IntStream.range(0, 8).parallel()
+                .mapToObj(seed -> puzzleService.generatePuzzle(lexicon, seed, CancellationToken.none(), null).getPuzzle())
+                .toList();
+        List<Puzzle> sequential = IntStream.range(0, 8)
+                .mapToObj(seed -> puzzleService.generatePuzzle(lexicon, seed, CancellationToken.none(), null).getPuzzle())
+                .toList();
+        // Any state shared between generations would make the concurrent puzzles differ
+        assertEquals(sequential, concurrent, "Puzzles generated at once should match the same seeds generated one by one");
+    }
+
+    @Test
+    void testEmptyPuzzleIsBuiltOnce() {
+        PuzzleSnapshot empty = puzzleService.getEmptyPuzzle();
+        assertEquals(0, empty.getPlacedTileCount(), "The empty puzzle should have no tiles on the board");
+        assertSame(empty, puzzleService.getEmptyPuzzle(), "The empty puzzle should be reused");
+    }
+
+    @Test
+    void testSeededGeneration() {
+        LexiconSnapshot lexicon = wordDictionaryService.getDefaultLexicon();
+        PuzzleSnapshot first = puzzleService.generatePuzzle(lexicon, 42L, CancellationToken.none(), null);
+        PuzzleSnapshot second = puzzleService.generatePuzzle(lexicon, 42L, CancellationToken.none(), null);
+        assertEquals(first.getPuzzle(), second.getPuzzle(), "The same seed should give the same puzzle");
+        assertEquals(42L, first.getPuzzle().seed(), "Puzzle should report its seed");
+        assertEquals(first.getBestMove(), second.getBestMove(), "The same seed should give the same best move");
+
+        PuzzleSnapshot cached = puzzleService.generatePuzzle(null, 7L);
+        assertSame(cached, puzzleService.generatePuzzle(null, 7L), "Seeded puzzle should be served from the cache");
+        assertEquals(puzzleService.generatePuzzle(lexicon, 7L, CancellationToken.none(), null).getPuzzle(), cached.getPuzzle(),
+                "Cached puzzle should match a fresh one");
+    }
+
+    @Test
+    void testStoredPuzzle() {
+        PuzzleSnapshot puzzle = puzzleService.generatePuzzle();
+        PuzzleSnapshot stored = puzzleService.getStoredPuzzle(puzzle.getId());
+        assertEquals(puzzle, stored, "A stored puzzle should read back as it was generated");
+        assertArrayEquals(puzzle.toJson(), stored.toJson(), "A stored puzzle should have the same response");
+        assertSame(stored, puzzleService.getStoredPuzzle(puzzle.getId()), "Reads should be answered from the cache");
+        assertEquals(puzzle.getPuzzle(), puzzleStoreService.find(puzzle.getId()), "The best move should be stored with the puzzle");
+        assertNull(puzzleService.getStoredPuzzle(puzzle.getId() + 1000), "Unknown IDs should have no puzzle");
+    }
+
+    @Test
+    void testCancelledGenerationIsPartial() {
+        LexiconSnapshot lexicon = wordDictionaryService.getDefaultLexicon();
+        CancellationToken token = CancellationToken.none();
+        token.cancel();
+        PuzzleSnapshot puzzle = puzzleService.generatePuzzle(lexicon, 42L, token, null);
+        assertTrue(puzzle.isPartial(), "A cancelled puzzle should be marked partial");
+        assertEquals(0, puzzle.getPlacedTileCount(), "No tiles should be placed after cancellation");
+        assertFalse(puzzleService.generatePuzzle(lexicon, 42L, CancellationToken.none(), null).isPartial(),
+                "A finished puzzle should not be partial");
+        assertThrows(IllegalArgumentException.class, () -> puzzleService.newCancellationToken(0L),
+                "Timeouts must be positive");
+    }
+
+    @Test
+    void testBulkGeneration() throws IOException {
+        LexiconSnapshot lexicon = wordDictionaryService.getDefaultLexicon();
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        bulkPuzzleService.writePuzzles(lexicon, 6, 3L, first);
+        bulkPuzzleService.writePuzzles(lexicon, 6, 3L, second);
+
+        String[] lines = first.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(6, lines.length, "Each puzzle should be one line");
+        assertTrue(lines[0].startsWith("{\"seed\":"), "Lines should be compact JSON puzzles");
+        assertEquals(first.toString(StandardCharsets.UTF_8), second.toString(StandardCharsets.UTF_8),
+                "The same batch seed should give the same puzzles");
+
+        OutputStream closed = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Client disconnected");
+            }
+        };
+        assertThrows(IOException.class, () -> bulkPuzzleService.writePuzzles(lexicon, 100, 3L, closed),
+                "A failed write should end the batch");
+    }
+
+    @Test
+    void testPuzzleStream() {
+        LexiconSnapshot lexicon = wordDictionaryService.getDefaultLexicon();
+        List<Puzzle> first = puzzleService.puzzles(lexicon, 11L).limit(3).toList();
+        assertEquals(first, puzzleService.puzzles(lexicon, 11L).limit(3).toList(),
+                "A sequential stream should repeat for the same seed");
+        assertEquals(15, first.get(0).board().size(), "Boards should have one string per row");
+        assertEquals(7, first.get(0).rack().length(), "Racks should hold 7 tiles");
+
+        List<Puzzle> parallel = puzzleService.puzzles(lexicon, 11L).parallel().limit(12).toList();
+        assertEquals(12, parallel.size(), "A parallel stream should honour the limit");
+        assertEquals(12, parallel.stream().map(Puzzle::seed).distinct().count(), "Parallel puzzles should not repeat seeds");
+    }
+
+    @Test
+    void testBestOfGeneration() {
+        long start = System.nanoTime();
+        PuzzleSnapshot puzzle = bestOfPuzzleService.generateBest(null, 4);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        assertFalse(puzzle.isPartial(), "A best puzzle found within the budget should be finished");
+        // Every tile but the puzzle's rack
+        assertEquals(93, puzzle.getPlacedTileCount(), "A best puzzle should place every tile it can");
+        assertTrue(elapsedMillis < 2000 + 1000, "A best puzzle should be found within the budget");
+
+        PuzzleSnapshot rushed = bestOfPuzzleService.generateBest(null, 4, 1L);
+        assertTrue(rushed.isPartial(), "Running out of time should give back the best partial board");
+        assertTrue(rushed.getPlacedTileCount() < 93, "A partial board should not be finished");
+        assertThrows(IllegalArgumentException.class, () -> bestOfPuzzleService.generateBest(null, 0),
+                "At least one candidate is needed");
+    }
+
+}
@@ -0,0 +1,60 @@
+package dev.newpower.cbor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HexFormat;
+
+class CborWriterTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final CborWriter writer = new CborWriter(out);
+
+    @Test
+    void testIntegers() throws IOException {
+        // Examples from RFC 8949, appendix A
+        assertEncodes("00", () -> writer.writeLong(0));
+        assertEncodes("17", () -> writer.writeLong(23));
+        assertEncodes("1818", () -> writer.writeLong(24));
+        assertEncodes("1864", () -> writer.writeLong(100));
+        assertEncodes("1903e8", () -> writer.writeLong(1000));
+        assertEncodes("1a000f4240", () -> writer.writeLong(1000000));
+        assertEncodes("1b000000e8d4a51000", () -> writer.writeLong(1000000000000L));
+        assertEncodes("20", () -> writer.writeLong(-1));
+        assertEncodes("3903e7", () -> writer.writeLong(-1000));
+        assertEncodes("3b7fffffffffffffff", () -> writer.writeLong(Long.MIN_VALUE));
+    }
+
+    @Test
+    void testSimpleValues() throws IOException {
+        assertEncodes("fb3ff199999999999a", () -> writer.writeDouble(1.1));
+        assertEncodes("f4", () -> writer.writeBoolean(false));
+        assertEncodes("f5", () -> writer.writeBoolean(true));
+        assertEncodes("f6", writer::writeNull);
+        assertEncodes("60", () -> writer.writeString(""));
+        assertEncodes("6449455446", () -> writer.writeString("IETF"));
+        assertEncodes("62c3bc", () -> writer.writeString("ü"));
+    }
+
+    @Test
+    void testJsonTree() throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        assertEncodes("83010203", () -> writer.write(mapper.readTree("[1, 2, 3]")));
+        assertEncodes("a26161016162820203", () -> writer.write(mapper.readTree("{\"a\": 1, \"b\": [2, 3]}")));
+        assertEncodes("a161616378797a", () -> writer.write(mapper.readTree("{\"a\": \"xyz\"}")));
+        assertEncodes("a0", () -> writer.write(mapper.readTree("{}")));
+    }
+
+    private interface Write {
+        void run() throws IOException;
+    }
+
+    private void assertEncodes(String hex, Write write) throws IOException {
+        out.reset();
+        write.run();
+        assertEquals(hex, HexFormat.of().formatHex(out.toByteArray()), "Encoding should match RFC 8949");
+    }
+}
@@ -0,0 +1,134 @@
+package dev.newpower.engine;
+
+import dev.newpower.lexicon.WordGraph;
+import dev.newpower.model.ScrabbleBoard;
+import dev.newpower.model.ScrabbleTile;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+class MoveGeneratorTest {
+
+    private final WordGraph graph = WordGraph.build(List.of(
+            "AT", "TA", "CAT", "CATS", "ACT", "ACTS", "SCAT", "TACT", "AS", "SAT", "TAT", "ST"));
+    private final MoveGenerator generator = new MoveGenerator(graph);
+
+    @Test
+    void testFirstMoveCoversCenter() {
+        List<Move> moves = generator.generate(new ScrabbleBoard(), rack("CATS"), 7);
+        assertFalse(moves.isEmpty(), "A rack holding words should have an opening move");
+        for (Move move : moves) {
+            assertTrue(move.isHorizontal(), "Opening moves should only be generated once, across");
+            assertEquals(7, move.getRow(), "Opening moves should lie on the centre row");
+            assertTrue(move.getCol() <= 7 && move.getCol() + move.getWord().length() > 7, "Opening move should cover the centre: " + move);
+        }
+        assertTrue(moves.stream().anyMatch(move -> move.getWord().equals("SCAT") && move.getCol() == 4), "SCAT should be playable ending on the centre");
+    }
+
+    @Test
+    void testEveryMoveIsLegal() {
+        ScrabbleBoard board = boardWith("CAT", 7, 6);
+        List<Move> moves = generator.generate(board, rack("SATT"), 7);
+        assertFalse(moves.isEmpty(), "Moves should be found next to an existing word");
+        for (Move move : moves) {
+            ScrabbleBoard after = boardWith("CAT", 7, 6);
+            int placed = 0;
+            for (int i = 0; i < move.getWord().length(); i++) {
+                if (after.isEmpty(move.rowAt(i), move.colAt(i))) {
+                    after.placeTile(move.rowAt(i), move.colAt(i), tile(move.getWord().charAt(i)));
+                    placed++;
+                } else {
+                    assertEquals(move.getWord().charAt(i), after.getTile(move.rowAt(i), move.colAt(i)).getLetter(), "Move should match tiles on the board: " + move);
+                }
+            }
+            assertEquals(move.getTilesPlaced(), placed, "Tile count should match the new tiles: " + move);
+            assertAllWordsValid(after, move);
+        }
+        assertTrue(moves.stream().anyMatch(move -> move.getWord().equals("CATS") && move.isHorizontal()), "CAT should be extendable to CATS");
+        assertTrue(moves.stream().anyMatch(move -> move.getWord().equals("TACT") && !move.isHorizontal()), "TACT should be playable down through the T");
+    }
+
+    @Test
+    void testTileLimit() {
+        ScrabbleBoard board = boardWith("CAT", 7, 6);
+        for (Move move : generator.generate(board, rack("SATT"), 1)) {
+            assertEquals(1, move.getTilesPlaced(), "No move should use more tiles than allowed: " + move);
+        }
+        assertTrue(generator.generate(board, rack("Q"), 7).isEmpty(), "A rack that spells nothing should have no moves");
+    }
+
+    @Test
+    void testBlanks() {
+        ScrabbleBoard board = boardWith("CAT", 7, 6);
+        List<Move> moves = generator.generate(board, rack("A"), 1, 7);
+        assertTrue(moves.stream().anyMatch(move -> move.getWord().equals("CATs") && move.getTilesPlaced() == 1),
+                "A blank should be playable as any letter");
+        assertTrue(moves.stream().anyMatch(move -> move.getWord().equals("tAT") && !move.isHorizontal()),
+                "A blank should be playable next to a tile");
+        assertTrue(moves.stream().anyMatch(move -> move.getWord().equals("TAt") && !move.isHorizontal()),
+                "A blank and a tile should be playable together");
+        assertTrue(moves.stream().anyMatch(move -> move.getWord().equals("aT") && !move.isHorizontal()),
+                "A blank should be playable for a letter on the rack");
+        assertTrue(moves.stream().anyMatch(move -> move.getWord().equals("AT") && !move.isHorizontal()),
+                "The tile should still be played itself");
+        for (Move move : moves) {
+            ScrabbleBoard after = boardWith("CAT", 7, 6);
+            StringBuilder placed = new StringBuilder();
+            for (int i = 0; i < move.getWord().length(); i++) {
+                if (after.isEmpty(move.rowAt(i), move.colAt(i))) {
+                    placed.append(move.getWord().charAt(i));
+                    after.placeTile(move.rowAt(i), move.colAt(i), tile(Character.toUpperCase(move.getWord().charAt(i))));
+                }
+            }
+            assertEquals(move.getTilesPlaced(), placed.length(), "Tile count should match the new tiles: " + move);
+            assertTrue(placed.chars().filter(Character::isLowerCase).count() <= 1, "Only one blank should be used: " + move);
+            assertTrue(placed.chars().filter(Character::isUpperCase).allMatch(c -> c == 'A'), "Other tiles should come from the rack: " + move);
+            assertAllWordsValid(after, move);
+        }
+        assertFalse(generator.generate(board, rack(""), 1, 7).isEmpty(), "A lone blank should still have moves");
+        assertTrue(generator.generate(board, rack(""), 0, 7).isEmpty(), "An empty rack should have no moves");
+    }
+
+    private void assertAllWordsValid(ScrabbleBoard board, Move move) {
+        for (int a = 0; a < 15; a++) {
+            StringBuilder row = new StringBuilder();
+            StringBuilder col = new StringBuilder();
+            for (int b = 0; b <= 15; b++) {
+                checkRun(row, b < 15 ? board.getTile(a, b) : null, move);
+                checkRun(col, b < 15 ? board.getTile(b, a) : null, move);
+            }
+        }
+    }
+
+    private void checkRun(StringBuilder run, ScrabbleTile tile, Move move) {
+        if (tile != null) {
+            run.append(tile.getLetter());
+            return;
+        }
+        if (run.length() > 1) {
+            assertTrue(graph.contains(run), "Move " + move + " forms invalid word " + run);
+        }
+        run.setLength(0);
+    }
+
+    private static ScrabbleBoard boardWith(String word, int row, int col) {
+        ScrabbleBoard board = new ScrabbleBoard();
+        for (int i = 0; i < word.length(); i++) {
+            board.placeTile(row, col + i, tile(word.charAt(i)));
+        }
+        return board;
+    }
+
+    private static ScrabbleTile tile(char letter) {
+        return new ScrabbleTile(letter, 1, 1);
+    }
+
+    private static int[] rack(String letters) {
+        int[] counts = new int[26];
+        for (char c : letters.toCharArray()) {
+            counts[c - 'A']++;
+        }
+        return counts;
+    }
+}
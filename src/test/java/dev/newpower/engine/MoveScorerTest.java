@@ -0,0 +1,80 @@
+package dev.newpower.engine;
+
+import dev.newpower.model.ScrabbleBag;
+import dev.newpower.model.ScrabbleBoard;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+
+class MoveScorerTest {
+
+    private final MoveScorer scorer = new MoveScorer();
+
+    @Test
+    void testMainWordPremiums() {
+        ScrabbleBoard board = new ScrabbleBoard();
+        place(board, 3, 4, "AT");
+        scorer.load(board);
+        // C on the double word square at (3,3); the A and T were scored when they were played
+        assertEquals(10, scorer.score(new Move("CAT", 3, 3, true, 1)), "CAT should double for its new tile");
+
+        scorer.load(new ScrabbleBoard());
+        // Triple word at (0,0) and double letter D at (0,3), plus the bonus for all seven tiles
+        assertEquals(54 + MoveScorer.BINGO_BONUS, scorer.score(new Move("ABCDEFG", 0, 0, true, 7)),
+                "A seven-tile move should earn the bingo bonus");
+        assertEquals(54, scorer.score(new Move("ABCDEFG", 0, 0, true, 6)), "Fewer than seven tiles earns no bonus");
+    }
+
+    @Test
+    void testCrossWords() {
+        ScrabbleBoard board = new ScrabbleBoard();
+        place(board, 4, 7, "X");
+        scorer.load(board);
+        // ZA across: Z on the double letter at (3,7) makes 21, and ZX down makes 20 + 8
+        assertEquals(49, scorer.score(new Move("ZA", 3, 7, true, 2)), "The cross word should use the new tile's letter premium");
+
+        place(board, 6, 6, "A");
+        scorer.load(board);
+        // A blank q at (6,7) scores nothing itself; I doubles on the centre; Aq across scores the A
+        assertEquals(3, scorer.score(new Move("qI", 6, 7, false, 2)), "Blanks should score nothing in either word");
+    }
+
+    @Test
+    void testMatchesVisitorArguments() {
+        ScrabbleBoard board = new ScrabbleBoard();
+        place(board, 7, 6, "CAT");
+        scorer.load(board);
+        char[] letters = "CATS".toCharArray();
+        assertEquals(scorer.score(new Move("CATS", 7, 6, true, 1)), scorer.score(letters, 4, 7, 6, true, 1),
+                "Both forms should score the same move alike");
+        assertEquals(6, scorer.score(letters, 4, 7, 6, true, 1), "Extending a word should score the whole word");
+    }
+
+    @Test
+    void testScoringDoesNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ScrabbleBoard board = new ScrabbleBoard();
+        place(board, 4, 7, "X");
+        scorer.load(board);
+        char[] letters = "ZA".toCharArray();
+        int total = 0;
+        for (int i = 0; i < 100_000; i++) {
+            total += scorer.score(letters, 2, 3, 7, true, 2);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 1_000_000; i++) {
+            total += scorer.score(letters, 2, 3, 7, true, 2);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        assertEquals(49 * 1_100_000, total, "Every score should be the same");
+        assertTrue(allocated < 1024, "Scoring should not allocate, but allocated " + allocated + " bytes");
+    }
+
+    private static void place(ScrabbleBoard board, int row, int col, String letters) {
+        for (int i = 0; i < letters.length(); i++) {
+            board.placeTile(row, col + i, ScrabbleBag.tileFor(letters.charAt(i)));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package dev.newpower.lexicon;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class BloomFilterTest {
+
+    private final Dawg dawg = WordGraph.build(List.of("CAT", "CATS", "DOG", "AT", "TOAST", "ZEBRA")).forward();
+
+    @Test
+    void testNoFalseNegatives() {
+        BloomFilter filter = BloomFilter.build(dawg, 1024);
+        List<String> words = new ArrayList<>();
+        dawg.forEachWord((letters, length) -> words.add(new String(letters, 0, length)));
+        for (String word : words) {
+            assertTrue(filter.mightContain(word), "Filter should pass " + word);
+            assertTrue(filter.mightContain(word.toLowerCase()), "Filter should ignore case for " + word);
+            char[] padded = ("XX" + word + "Y").toCharArray();
+            assertTrue(filter.mightContain(padded, 2, word.length()), "Filter should pass a slice holding " + word);
+        }
+        assertFalse(filter.mightContain("CA T"), "Non-letters can never form a word");
+    }
+
+    @Test
+    void testSizing() {
+        BloomFilter filter = BloomFilter.build(dawg, 1000);
+        assertEquals(128, filter.sizeBytes(), "Size should round up to a power of two bits");
+        assertTrue(filter.hashCount() >= 1, "Filter should set at least one bit per word");
+        assertTrue(filter.expectedFalsePositiveRate() < 0.01, "A sparse filter should rarely pass non-words");
+        assertThrows(IllegalArgumentException.class, () -> BloomFilter.build(dawg, 0));
+    }
+
+    @Test
+    void testFilteredLexiconCounters() {
+        FilteredLexicon lexicon = new FilteredLexicon(dawg, BloomFilter.build(dawg, 64));
+        assertTrue(lexicon.contains("CATS"), "Words should still be found");
+        assertFalse(lexicon.contains("CATZ"), "Non-words should still be rejected");
+        assertFalse(lexicon.contains("C4T".toCharArray(), 0, 3), "Non-letters should be rejected");
+
+        assertEquals(3, lexicon.getQueries(), "Every lookup should be counted");
+        assertEquals(2, lexicon.getRejected() + lexicon.getFalsePositives(), "Each non-word is either rejected or a false positive");
+        assertTrue(lexicon.getRejected() >= 1, "Non-letters are always rejected by the filter");
+    }
+}
@@ -0,0 +1,39 @@
+package dev.newpower.lexicon;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+class LexiconFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        WordGraph graph = WordGraph.build(List.of("CAT", "CATS", "DOG", "DOGS", "AT"));
+        Path file = tempDir.resolve("words.dawg");
+        LexiconFile.write(file, 42L, graph);
+
+        WordGraph mapped = LexiconFile.map(file, 42L);
+        assertNotNull(mapped, "Snapshot with a matching checksum should map");
+        assertEquals(5, mapped.size(), "Mapped graph should keep its word count");
+        assertTrue(mapped.contains("DOGS"), "Mapped graph should contain DOGS");
+        assertFalse(mapped.contains("DO"), "Mapped graph should not contain DO");
+        assertEquals(graph.crossCheck("", "T"), mapped.crossCheck("", "T"), "Cross-checks should match the source graph");
+        assertTrue(mapped.isSuffix("OGS"), "Reverse graph should be mapped too");
+    }
+
+    @Test
+    void testStaleOrMissingSnapshot() throws IOException {
+        Path file = tempDir.resolve("words.dawg");
+        assertNull(LexiconFile.map(file, 42L), "Missing snapshot should not map");
+
+        LexiconFile.write(file, 42L, WordGraph.build(List.of("CAT")));
+        assertNull(LexiconFile.map(file, 43L), "Snapshot built from another word list should be stale");
+    }
+}
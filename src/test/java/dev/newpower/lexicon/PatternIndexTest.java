@@ -0,0 +1,44 @@
+package dev.newpower.lexicon;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+class PatternIndexTest {
+
+    private PatternIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = PatternIndex.build(WordGraph.build(List.of("CRATE", "GRAPE", "PLATE", "CRANE", "TRACE", "CAT", "CAR")).forward());
+    }
+
+    @Test
+    void testPatternMatch() {
+        assertEquals(List.of("CRANE", "CRATE", "GRAPE", "TRACE"), index.match("?RA?E", 10), "Should match R in position 2, A in 3 and E in 5");
+        assertEquals(List.of("CAR", "CAT"), index.match("CA?", 10), "Should match three-letter words starting with CA");
+        assertEquals(5, index.count("?????"), "All-wildcard pattern should match every word of that length");
+        assertTrue(index.match("??????", 10).isEmpty(), "No six-letter words were indexed");
+    }
+
+    @Test
+    void testLimit() {
+        assertEquals(2, index.match("?????", 2).size(), "Results should stop at the limit");
+    }
+
+    @Test
+    void testAllowedLetterMasks() {
+        int any = PatternIndex.ANY_LETTER;
+        int cOrG = (1 << ('C' - 'A')) | (1 << ('G' - 'A'));
+        int tOrP = (1 << ('T' - 'A')) | (1 << ('P' - 'A'));
+        assertEquals(List.of("CRATE", "GRAPE"), index.match(new int[] {cOrG, any, any, tOrP, any}, 10),
+                "Each position should be limited to its allowed letters");
+    }
+
+    @Test
+    void testInvalidPattern() {
+        assertThrows(IllegalArgumentException.class, () -> index.match("C*T", 10));
+    }
+}
@@ -0,0 +1,42 @@
+package dev.newpower.lexicon;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+class RackSearchTest {
+
+    private Dawg dawg;
+
+    @BeforeEach
+    void setUp() {
+        dawg = WordGraph.build(List.of("AT", "TA", "CAT", "ACT", "CATS", "SCAT", "CAST", "TACO", "COAT")).forward();
+    }
+
+    @Test
+    void testSubAnagrams() {
+        List<String> words = RackSearch.findWords(dawg, "TAC", 2, false);
+        assertEquals(List.of("ACT", "CAT", "AT", "TA"), words, "Should find every word spelled from the rack, longest first");
+    }
+
+    @Test
+    void testExactAnagrams() {
+        List<String> words = RackSearch.findWords(dawg, "STAC", 2, true);
+        assertEquals(List.of("CAST", "CATS", "SCAT"), words, "Exact search should only return words using every tile");
+    }
+
+    @Test
+    void testBlanks() {
+        List<String> words = RackSearch.findWords(dawg, "CAT?", 4, false);
+        assertTrue(words.contains("CATs"), "Blank should stand in for the S in CATS");
+        assertTrue(words.contains("TACo"), "Blank should stand in for the O in TACO");
+        assertFalse(words.contains("CAT"), "Words shorter than the minimum should be skipped");
+    }
+
+    @Test
+    void testInvalidRack() {
+        assertThrows(IllegalArgumentException.class, () -> RackSearch.findWords(dawg, "CA1", 2, false));
+    }
+}
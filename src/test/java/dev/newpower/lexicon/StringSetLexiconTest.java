@@ -0,0 +1,39 @@
+package dev.newpower.lexicon;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class StringSetLexiconTest {
+
+    private final Dawg dawg = WordGraph.build(List.of("CAT", "CATS", "DOG", "AT")).forward();
+
+    @Test
+    void testMatchesDawg() {
+        Lexicon strings = StringSetLexicon.copyOf(dawg);
+        assertEquals(dawg.size(), strings.size(), "Copy should keep every word");
+        for (String word : List.of("CAT", "cats", "DOG", "AT", "DO", "CA", "DOGS")) {
+            assertEquals(dawg.contains(word), strings.contains(word), "contains should agree for " + word);
+        }
+        for (String prefix : List.of("C", "CA", "CATS", "D", "X", "ATT")) {
+            assertEquals(dawg.containsPrefix(prefix), strings.containsPrefix(prefix), "containsPrefix should agree for " + prefix);
+        }
+    }
+
+    @Test
+    void testIterationOrder() {
+        List<String> words = new ArrayList<>();
+        StringSetLexicon.copyOf(dawg).forEachWord((letters, length) -> words.add(new String(letters, 0, length)));
+        assertEquals(List.of("AT", "CAT", "CATS", "DOG"), words, "Words should be visited in ascending order");
+    }
+
+    @Test
+    void testOffHeapCopy() {
+        Dawg direct = dawg.toOffHeap();
+        assertTrue(direct.isOffHeap(), "Copy should live in direct memory");
+        assertFalse(dawg.isOffHeap(), "Built graphs start on the heap");
+        assertTrue(direct.contains("CATS"), "Off-heap copy should answer lookups");
+    }
+}
@@ -0,0 +1,63 @@
+package dev.newpower.lexicon;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+class WordGraphTest {
+
+    private WordGraph graph;
+
+    @BeforeEach
+    void setUp() {
+        graph = WordGraph.build(List.of("CAT", "CATS", "CAR", "CARS", "BAT", "BATS", "AT", "SCAT", "ACT"));
+    }
+
+    @Test
+    void testContains() {
+        assertTrue(graph.contains("CAT"), "CAT should be in the graph");
+        assertTrue(graph.contains("scat"), "Lookups should ignore case");
+        assertFalse(graph.contains("CA"), "A prefix is not a word");
+        assertFalse(graph.contains("DOG"), "DOG was never added");
+        assertFalse(graph.contains(""), "The empty string is not a word");
+        assertEquals(9, graph.size(), "Graph should report every distinct word");
+    }
+
+    @Test
+    void testPrefixAndSuffix() {
+        assertTrue(graph.isPrefix("CA"), "CA starts CAT");
+        assertFalse(graph.isPrefix("CT"), "No word starts with CT");
+        assertTrue(graph.isSuffix("ATS"), "ATS ends CATS and BATS");
+        assertFalse(graph.isSuffix("CA"), "No word ends with CA");
+    }
+
+    @Test
+    void testCrossCheck() {
+        assertEquals(mask('T', 'R'), graph.crossCheck("CA", ""), "CA? should allow T and R");
+        assertEquals(mask('C', 'B'), graph.crossCheck("", "ATS"), "?ATS should allow C and B");
+        assertEquals(mask('A'), graph.crossCheck("C", "TS"), "C?TS should only allow A");
+        assertEquals(0, graph.crossCheck("XY", ""), "Unknown prefixes allow nothing");
+    }
+
+    @Test
+    void testNextAndPreviousLetters() {
+        assertEquals(mask('T', 'R'), graph.nextLetters("CA"), "CA can continue with T or R");
+        assertEquals(mask('C', 'B'), graph.previousLetters("AT"), "AT can follow C or B");
+    }
+
+    @Test
+    void testBuilderRejectsUnsortedInput() {
+        DawgBuilder builder = new DawgBuilder().add("CAT");
+        assertThrows(IllegalArgumentException.class, () -> builder.add("BAT"));
+    }
+
+    private static int mask(char... letters) {
+        int mask = 0;
+        for (char c : letters) {
+            mask |= 1 << (c - 'A');
+        }
+        return mask;
+    }
+}
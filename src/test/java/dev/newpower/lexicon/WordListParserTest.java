@@ -0,0 +1,46 @@
+package dev.newpower.lexicon;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+class WordListParserTest {
+
+    @Test
+    void testParsesAndFiltersLines() throws IOException {
+        String text = "Word list header. 3 words.\r\n\r\naa\r\n  Cat \r\nA\r\nDOG\r\nno-go\r\nzebra";
+        List<String> words = WordListParser.parse(stream(text), 2);
+        assertEquals(List.of("AA", "CAT", "DOG", "ZEBRA"), words, "Should keep trimmed, upper-cased A-Z lines only");
+    }
+
+    @Test
+    void testSkipsOverlongWords() throws IOException {
+        String tooLong = "A".repeat(WordListParser.MAX_WORD_LENGTH + 1);
+        String longest = "B".repeat(WordListParser.MAX_WORD_LENGTH);
+        List<String> words = WordListParser.parse(stream("cat\n" + tooLong + "\n" + longest + "\ndog"), 2);
+        assertEquals(List.of("CAT", longest, "DOG"), words, "Only words past the length limit should be skipped");
+    }
+
+    @Test
+    void testLargeInputKeepsOrderAcrossChunks() throws IOException {
+        List<String> expected = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            String word = Integer.toString(i, 26).chars()
+                    .mapToObj(c -> String.valueOf((char) ('A' + Character.digit(c, 26))))
+                    .reduce("Q", String::concat);
+            expected.add(word);
+            text.append(word.toLowerCase()).append('\n');
+        }
+        assertEquals(expected, WordListParser.parse(stream(text.toString()), 2), "Parallel parse should keep file order");
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.US_ASCII));
+    }
+}
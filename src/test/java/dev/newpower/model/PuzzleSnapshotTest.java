@@ -0,0 +1,136 @@
+package dev.newpower.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+class PuzzleSnapshotTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void testJsonMatchesClientFormat() throws IOException {
+        List<String> board = new ArrayList<>(Collections.nCopies(15, "..............."));
+        board.set(7, ".......QI......");
+        PuzzleSnapshot snapshot = new PuzzleSnapshot(5, new Puzzle(42, "default", board, "AB?", 2, false));
+        JsonNode json = mapper.readTree(snapshot.toJson());
+
+        assertEquals(5, json.get("id").asLong(), "Stored puzzles should report their ID");
+        assertEquals(15, json.get("board").get("size").asInt(), "Board should report its size");
+        JsonNode cells = json.get("board").get("cells");
+        assertEquals(15, cells.size(), "Board should have 15 rows");
+        assertEquals(15, cells.get(0).size(), "Rows should have 15 cells");
+
+        JsonNode tile = cells.get(7).get(7);
+        assertEquals("Q", tile.get("letter").asText(), "Occupied cells should carry their letter");
+        assertEquals(10, tile.get("points").asInt(), "Occupied cells should carry their points");
+        assertTrue(tile.get("hasTile").asBoolean(), "Occupied cells should say so");
+        assertEquals(2, tile.get("wordMultiplier").asInt(), "The centre is a double word square");
+
+        JsonNode empty = cells.get(0).get(0);
+        assertFalse(empty.get("hasTile").asBoolean(), "Empty cells should say so");
+        assertFalse(empty.has("letter"), "Empty cells should have no letter");
+        assertEquals(3, empty.get("wordMultiplier").asInt(), "Corners are triple word squares");
+        assertEquals(2, cells.get(0).get(3).get("letterMultiplier").asInt(), "Double letter squares should be marked");
+
+        JsonNode rack = json.get("remainingTiles");
+        assertEquals(3, rack.size(), "Every rack tile should be listed");
+        assertEquals(3, rack.get(1).get("pointValue").asInt(), "Rack tiles should carry their points");
+        assertEquals(" ", rack.get(2).get("letter").asText(), "Blanks should be sent as a space");
+        assertEquals(2, rack.get(2).get("count").asInt(), "Rack tiles should carry their count in the bag");
+        assertEquals(2, json.get("placedTileCount").asInt(), "Placed tiles should be counted");
+        assertEquals(98, json.get("remainingTileCount").asInt(), "Remaining tiles should be counted");
+        assertEquals("default", json.get("lexicon").asText(), "Puzzle should report its lexicon");
+        assertEquals(42, json.get("seed").asLong(), "Puzzle should report its seed");
+        assertFalse(json.get("partial").asBoolean(), "Puzzle should report if it is partial");
+        assertEquals(0, json.get("bestScore").asInt(), "A puzzle without a best move should score 0");
+        assertTrue(json.get("bestMove").isNull(), "A puzzle without a best move should say so");
+    }
+
+    @Test
+    void testBestMove() throws IOException {
+        List<String> board = Collections.nCopies(15, "...............");
+        PuzzleSnapshot snapshot = new PuzzleSnapshot(5, new Puzzle(42, "default", board, "CAT", 0, false,
+                new BestMove("CAT", 7, 5, true, 3, 10)));
+        JsonNode json = mapper.readTree(snapshot.toJson());
+
+        assertEquals(10, json.get("bestScore").asInt(), "The best move's score should be reported");
+        JsonNode move = json.get("bestMove");
+        assertEquals("CAT", move.get("word").asText(), "The best move should carry its word");
+        assertEquals(7, move.get("row").asInt(), "The best move should carry its row");
+        assertEquals(5, move.get("col").asInt(), "The best move should carry its column");
+        assertTrue(move.get("horizontal").asBoolean(), "The best move should carry its direction");
+        assertEquals(3, move.get("tilesPlaced").asInt(), "The best move should carry its tile count");
+        assertNotEquals(new PuzzleSnapshot(5, new Puzzle(42, "default", board, "CAT", 0, false)), snapshot,
+                "Snapshots with different best moves should differ");
+    }
+
+    @Test
+    void testCompactCbor() throws IOException {
+        PuzzleSnapshot snapshot = new PuzzleSnapshot(5, new Puzzle(42, "default",
+                Collections.nCopies(15, "..............."), "AB?", 0, false));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.writeCbor(out);
+        byte[] cbor = out.toByteArray();
+
+        assertEquals(cbor.length, snapshot.getCborLength(), "Length should match the written bytes");
+        assertEquals(0xAB, cbor[0] & 0xFF, "A stored puzzle should be a map of 11 fields");
+        assertEquals(0x62, cbor[1] & 0xFF, "The first key should be the 2-letter id");
+        assertTrue(cbor.length * 10 < snapshot.getJsonLength(), "CBOR should be far smaller than JSON");
+        String text = new String(cbor, StandardCharsets.ISO_8859_1);
+        assertTrue(text.contains("layout" + (char) 0x68 + PuzzleSnapshot.LAYOUT), "The layout should be sent by name");
+        assertFalse(text.contains("wordMultiplier"), "Multipliers should not be repeated per cell");
+    }
+
+    @Test
+    void testEntityTags() {
+        Puzzle puzzle = new Puzzle(42, "default", Collections.nCopies(15, "..............."), "AB?", 0, false);
+        PuzzleSnapshot snapshot = new PuzzleSnapshot(5, puzzle);
+        String version = snapshot.getVersion();
+
+        assertEquals(version, new PuzzleSnapshot(5, puzzle).getVersion(), "The same puzzle should have the same version");
+        assertNotEquals(version, new PuzzleSnapshot(6, puzzle).getVersion(), "A different response should have a new version");
+        assertEquals("\"" + version + "\"", snapshot.getETag(), "Entity tags should be quoted versions");
+        assertNotEquals(snapshot.getETag(), snapshot.getETag("gzip"), "Each representation should have its own tag");
+
+        assertEquals(snapshot.getETag(), snapshot.matchETag(snapshot.getETag()), "The JSON tag should match");
+        assertEquals(snapshot.getETag("gzip"), snapshot.matchETag("\"other\", W/" + snapshot.getETag("gzip")),
+                "Tags should be compared weakly and found in a list");
+        assertEquals(snapshot.getETag(), snapshot.matchETag("*"), "Any tag should match an existing puzzle");
+        assertNull(snapshot.matchETag("\"" + version + "0\""), "A longer version should not match");
+        assertNull(snapshot.matchETag(null), "No header should match nothing");
+    }
+
+    @Test
+    void testGzippedJson() throws IOException {
+        PuzzleSnapshot snapshot = new PuzzleSnapshot(0, new Puzzle(1, "default",
+                Collections.nCopies(15, "..............."), "ABCDEFG", 0, false));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        snapshot.writeGzippedJson(out);
+
+        assertEquals(out.size(), snapshot.getGzippedJsonLength(), "Length should match the written bytes");
+        assertTrue(out.size() * 4 < snapshot.getJsonLength(), "Board JSON should compress well");
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertArrayEquals(snapshot.toJson(), in.readAllBytes(), "Compressed JSON should decompress to the JSON");
+        }
+    }
+
+    @Test
+    void testJacksonWritesCachedJson() throws IOException {
+        PuzzleSnapshot snapshot = new PuzzleSnapshot(0, new Puzzle(1, "default",
+                Collections.nCopies(15, "..............."), "ABCDEFG", 0, true));
+        assertFalse(mapper.readTree(snapshot.toJson()).has("id"), "Unstored puzzles should have no ID");
+        assertEquals(mapper.readTree(snapshot.toJson()), mapper.readTree(mapper.writeValueAsBytes(snapshot)),
+                "Jackson should write the same JSON as the snapshot");
+    }
+}
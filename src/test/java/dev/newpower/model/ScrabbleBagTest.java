@@ -117,4 +117,45 @@ class ScrabbleBagTest {
         assertEquals(5, remainingTiles.size(), "Should only draw the remaining 5 tiles");
         assertTrue(bag.isEmpty(), "Bag should be empty after drawing all available tiles");
     }
-} 
\ No newline at end of file
+
+    @Test
+    void testRemoveTileWithLetter() {
+        for (int i = 0; i < 9; i++) {
+            assertNotNull(bag.removeTileWithLetter('A'), "Should remove each of the 9 A tiles");
+        }
+        assertNull(bag.removeTileWithLetter('A'), "Should return null once no A tiles remain");
+        assertEquals(0, bag.getCount('A'), "No A tiles should remain");
+        assertEquals(91, bag.getRemainingTiles(), "Bag should have 91 tiles after removing the A tiles");
+        assertNull(bag.removeTileWithLetter('!'), "Invalid letters should not be removed");
+    }
+
+    @Test
+    void testSharedTiles() {
+        ScrabbleTile first = bag.removeTileWithLetter('E');
+        ScrabbleTile second = bag.removeTileWithLetter('E');
+        assertSame(first, second, "Tiles of the same letter should be one shared instance");
+        assertSame(first, ScrabbleBag.tileFor('e'), "tileFor should return the shared instance");
+        assertEquals(12, first.getCount(), "Shared tiles should carry the letter's starting count");
+    }
+
+    @Test
+    void testCanSpell() {
+        assertTrue(bag.canSpell("QUIZ"), "A full bag can spell QUIZ");
+        assertFalse(bag.canSpell("JAZZ"), "There is only one Z");
+        assertTrue(bag.canSpell("eerie"), "Letters should be matched in either case");
+        assertFalse(bag.canSpell("A B"), "Blanks are not used to spell words");
+
+        bag.removeTileWithLetter('Q');
+        assertFalse(bag.canSpell("QUIZ"), "QUIZ needs the Q that was removed");
+    }
+
+    @Test
+    void testLetterCountsAfterDrawAndReturn() {
+        List<ScrabbleTile> tiles = bag.drawTiles(30);
+        bag.returnTiles(tiles);
+        int[] counts = bag.getLetterCounts(new int[26]);
+        assertEquals(9, counts[0], "All A tiles should be back in the bag");
+        assertEquals(12, counts['E' - 'A'], "All E tiles should be back in the bag");
+        assertEquals(98, java.util.Arrays.stream(counts).sum(), "Letter counts should leave out the 2 blanks");
+    }
+}
@@ -0,0 +1,109 @@
+package dev.newpower.model;
+
+import dev.newpower.lexicon.WordGraph;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+
+class ScrabbleBoardTest {
+
+    private final WordGraph graph = WordGraph.build(List.of(
+            "AT", "TA", "CAT", "CATS", "ACT", "SCAT", "TACT", "AS", "SAT", "TAT", "ST", "TO", "OS"));
+
+    @Test
+    void testCrossChecksAfterPlacement() {
+        ScrabbleBoard board = new ScrabbleBoard(graph);
+        place(board, "CAT", 7, 6);
+
+        assertEquals(mask("S"), board.getCrossCheck(7, 9, false), "Only S extends CAT down the column");
+        assertEquals(mask("S"), board.getCrossCheck(7, 5, false), "Only S prefixes CAT down the column");
+        assertEquals(mask("ST"), board.getCrossCheck(8, 7, true), "Letters under A must make AT or AS");
+        assertEquals(mask("AS"), board.getCrossCheck(6, 8, true), "Letters over T must make AT or ST");
+        assertEquals(0, board.getCrossCheck(7, 7, true), "Occupied squares allow nothing");
+        assertEquals((1 << 26) - 1, board.getCrossCheck(0, 0, true), "Squares away from tiles allow anything");
+        assertTrue(board.isCrossCheckValid(8, 7, 's', true), "Cross-check tests should ignore case");
+        assertFalse(board.isCrossCheckValid(8, 7, 'Q', true), "Q cannot follow A");
+
+        board.clear();
+        assertEquals((1 << 26) - 1, board.getCrossCheck(8, 7, true), "Clearing the board should reset cross-checks");
+    }
+
+    @Test
+    void testIncrementalMatchesRecomputed() {
+        Random random = new Random(42);
+        ScrabbleBoard board = new ScrabbleBoard(graph);
+        String letters = "ACOST";
+        for (int i = 0; i < 60; i++) {
+            int row = random.nextInt(15);
+            int col = random.nextInt(15);
+            if (board.isEmpty(row, col)) {
+                board.placeTile(row, col, new ScrabbleTile(letters.charAt(random.nextInt(letters.length())), 1, 1));
+            }
+        }
+
+        ScrabbleBoard recomputed = new ScrabbleBoard();
+        for (int row = 0; row < 15; row++) {
+            for (int col = 0; col < 15; col++) {
+                recomputed.placeTile(row, col, board.getTile(row, col));
+            }
+        }
+        recomputed.setWordGraph(graph);
+        for (int row = 0; row < 15; row++) {
+            for (int col = 0; col < 15; col++) {
+                assertEquals(recomputed.getCrossCheck(row, col, true), board.getCrossCheck(row, col, true), "Across check differs at " + row + "," + col);
+                assertEquals(recomputed.getCrossCheck(row, col, false), board.getCrossCheck(row, col, false), "Down check differs at " + row + "," + col);
+            }
+        }
+    }
+
+    @Test
+    void testBitboardViews() {
+        ScrabbleBoard board = new ScrabbleBoard();
+        assertEquals(1 << 7, board.getAnchors(7, true), "An empty board is anchored on the center");
+        assertEquals(0, board.getAnchors(6, true), "An empty board has no other anchors");
+
+        place(board, "CAT", 7, 6);
+        board.placeTile(8, 8, new ScrabbleTile('S', 1, 1));
+        assertEquals(4, board.getPlacedTileCount(), "Tile count should follow placements");
+        assertEquals(0b111 << 6, board.getOccupancy(7, true), "Row 7 should hold columns 6-8");
+        assertEquals(0b11 << 7, board.getOccupancy(8, false), "Column 8 should hold rows 7-8");
+        assertEquals('T', board.getLetter(7, 8, true), "Row view should read letters by row");
+        assertEquals('T', board.getLetter(8, 7, false), "Column view should read letters transposed");
+        assertEquals(0, board.getLetter(0, 0, true), "Empty squares should read as 0");
+        assertEquals((1 << 5) | (1 << 9), board.getAnchors(7, true), "Row 7 anchors lie at both ends of CAT");
+        assertEquals((0b111 << 6) & ~(1 << 8) | (1 << 7) | (1 << 9), board.getAnchors(8, true), "Row 8 anchors lie under CAT and beside S");
+        assertTrue(board.isAdjacentToTile(6, 6), "Squares above a tile are adjacent to it");
+        assertFalse(board.isAdjacentToTile(5, 6), "Squares two away are not adjacent");
+        assertEquals(2, board.getCoveredPremiumCount(), "CAT covers the center star and S a double letter");
+
+        board.placeTile(8, 8, null);
+        assertEquals(3, board.getPlacedTileCount(), "Removing a tile should update the count");
+        assertTrue(board.isEmpty(8, 8), "Removed tiles should leave the square empty");
+        assertEquals(3, board.getPlacedTiles().size(), "Placed tiles should match the count");
+        assertEquals(1, board.getCoveredPremiumCount(), "Removing S should uncover its premium square");
+
+        assertEquals(3, new ScrabbleBoard().getWordMultiplier(0, 0), "Premium squares should be shared by every board");
+        assertEquals(2, board.getLetterMultiplier(0, 3), "Double letter squares should be set");
+    }
+
+    @Test
+    void testCrossChecksNeedWordGraph() {
+        assertThrows(IllegalStateException.class, () -> new ScrabbleBoard().getCrossCheck(7, 7, true));
+    }
+
+    private static void place(ScrabbleBoard board, String word, int row, int col) {
+        for (int i = 0; i < word.length(); i++) {
+            board.placeTile(row, col + i, new ScrabbleTile(word.charAt(i), 1, 1));
+        }
+    }
+
+    private static int mask(String letters) {
+        int mask = 0;
+        for (char c : letters.toCharArray()) {
+            mask |= 1 << (c - 'A');
+        }
+        return mask;
+    }
+}
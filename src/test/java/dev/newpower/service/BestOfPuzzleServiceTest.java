@@ -0,0 +1,53 @@
+package dev.newpower.service;
+
+import dev.newpower.lexicon.LexiconSnapshot;
+import dev.newpower.lexicon.WordGraph;
+import dev.newpower.model.ScrabbleBag;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+class BestOfPuzzleServiceTest {
+
+    private final LexiconSnapshot lexicon = new LexiconSnapshot("test", 1, WordGraph.build(List.of("CAT", "CATS")),
+            null, null, "test", 0);
+
+    @Test
+    void testMoreTilesWin() {
+        PuzzleGenerationContext three = context("CAT", 7, 3);
+        PuzzleGenerationContext four = context("CATS", 4, 5);
+        // CAT covers a double letter square at column 3, CATS on row 4 covers none
+        assertEquals(1, three.getBoard().getCoveredPremiumCount(), "CAT should cover one premium square");
+        assertEquals(0, four.getBoard().getCoveredPremiumCount(), "CATS should cover no premium square");
+        assertSame(four, BestOfPuzzleService.better(three, four), "More tiles should beat premium squares");
+        assertSame(four, BestOfPuzzleService.better(four, three), "The order should not matter");
+    }
+
+    @Test
+    void testPremiumSquaresBreakTies() {
+        PuzzleGenerationContext plain = context("CAT", 7, 4);
+        PuzzleGenerationContext premium = context("CAT", 7, 3);
+        assertSame(premium, BestOfPuzzleService.better(plain, premium), "Premium squares should break a tie in tiles");
+        assertSame(premium, BestOfPuzzleService.better(premium, plain), "The order should not matter");
+
+        PuzzleGenerationContext same = context("CAT", 7, 4);
+        assertSame(plain, BestOfPuzzleService.better(plain, same), "An equal candidate should not replace the best");
+    }
+
+    @Test
+    void testFailedCandidates() {
+        PuzzleGenerationContext context = context("CAT", 7, 4);
+        assertSame(context, BestOfPuzzleService.better(null, context), "The first candidate should be kept");
+        assertSame(context, BestOfPuzzleService.better(context, null), "A failed candidate should be ignored");
+        assertNull(BestOfPuzzleService.better(null, null), "No candidate means no best");
+    }
+
+    private PuzzleGenerationContext context(String word, int row, int col) {
+        PuzzleGenerationContext context = new PuzzleGenerationContext(lexicon, 1L);
+        for (int i = 0; i < word.length(); i++) {
+            context.getBoard().placeTile(row, col + i, ScrabbleBag.tileFor(word.charAt(i)));
+        }
+        return context;
+    }
+}
@@ -0,0 +1,127 @@
+package dev.newpower.store;
+
+import dev.newpower.model.BestMove;
+import dev.newpower.model.Puzzle;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+class PuzzleStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testAppendAndGet() throws IOException {
+        try (PuzzleStore store = PuzzleStore.open(tempDir)) {
+            Puzzle first = puzzle(1, "CAT");
+            Puzzle second = puzzle(2, "DOGS");
+            assertEquals(1, store.append(first), "IDs should start at 1");
+            assertEquals(2, store.append(second), "IDs should increase by one");
+            assertEquals(first, store.get(1), "Buffered puzzles should be readable");
+
+            store.sync();
+            assertEquals(second, store.get(2), "Synced puzzles should be readable");
+            assertNull(store.get(3), "Unknown IDs should have no puzzle");
+            assertNull(store.get(0), "ID 0 is never used");
+        }
+    }
+
+    @Test
+    void testSurvivesReopen() throws IOException {
+        try (PuzzleStore store = PuzzleStore.open(tempDir)) {
+            for (int i = 0; i < 1000; i++) {
+                store.append(puzzle(i, "WORD"));
+            }
+        }
+        try (PuzzleStore store = PuzzleStore.open(tempDir)) {
+            assertEquals(1000, store.size(), "Every puzzle should survive a restart");
+            assertEquals(puzzle(499, "WORD"), store.get(500), "Puzzles should keep their IDs");
+            assertEquals(1001, store.append(puzzle(1000, "WORD")), "New IDs should continue after the old ones");
+        }
+    }
+
+    @Test
+    void testRecoversTornRecord() throws IOException {
+        try (PuzzleStore store = PuzzleStore.open(tempDir)) {
+            store.append(puzzle(1, "CAT"));
+            store.append(puzzle(2, "DOG"));
+        }
+        // Cut the last record short, as a crash in the middle of a write would
+        try (FileChannel data = FileChannel.open(tempDir.resolve("puzzles.dat"), StandardOpenOption.WRITE)) {
+            data.truncate(data.size() - 5);
+        }
+        try (PuzzleStore store = PuzzleStore.open(tempDir)) {
+            assertEquals(puzzle(1, "CAT"), store.get(1), "Intact records should be kept");
+            assertNull(store.get(2), "The torn record should be dropped");
+            assertEquals(3, store.append(puzzle(3, "EMU")), "The torn record's ID may have been handed out, so it should not be reused");
+            assertEquals(puzzle(3, "EMU"), store.get(3), "Appending after recovery should work");
+        }
+        try (PuzzleStore store = PuzzleStore.open(tempDir)) {
+            assertNull(store.get(2), "A lost ID should stay lost");
+            assertEquals(puzzle(3, "EMU"), store.get(3), "Records after a lost ID should be found");
+            assertEquals(3, store.size(), "The highest ID issued should be kept");
+        }
+    }
+
+    @Test
+    void testBufferedPuzzlesLostInCrash() throws IOException {
+        long synced;
+        try (PuzzleStore store = PuzzleStore.open(tempDir)) {
+            store.append(puzzle(1, "CAT"));
+            store.sync();
+            synced = Files.size(tempDir.resolve("puzzles.dat"));
+            store.append(puzzle(2, "DOG"));
+            store.append(puzzle(3, "EMU"));
+        }
+        // Leave the index as it was but drop the records written after the sync, as a
+        // crash with them still in the write buffer would; their IDs were already handed out
+        try (FileChannel data = FileChannel.open(tempDir.resolve("puzzles.dat"), StandardOpenOption.WRITE)) {
+            data.truncate(synced);
+        }
+
+        try (PuzzleStore store = PuzzleStore.open(tempDir)) {
+            assertEquals(puzzle(1, "CAT"), store.get(1), "Synced puzzles should survive a crash");
+            assertNull(store.get(2), "A lost ID should read as missing");
+            assertNull(store.get(3), "A lost ID should read as missing");
+            assertEquals(4, store.append(puzzle(4, "GNU")), "IDs handed out before the crash should not be reused");
+        }
+    }
+
+    @Test
+    void testKeepsBestMove() throws IOException {
+        Puzzle puzzle = puzzle(1, "CAT");
+        Puzzle solved = new Puzzle(puzzle.seed(), puzzle.lexicon(), puzzle.board(), puzzle.rack(), puzzle.placedTileCount(),
+                puzzle.partial(), new BestMove("ZEsTS", 3, 9, false, 5, 302));
+        try (PuzzleStore store = PuzzleStore.open(tempDir)) {
+            store.append(puzzle);
+            store.append(solved);
+        }
+        try (PuzzleStore store = PuzzleStore.open(tempDir)) {
+            assertNull(store.get(1).bestMove(), "A puzzle without a move should read back without one");
+            assertEquals(solved, store.get(2), "The best move should be read back, blanks included");
+        }
+    }
+
+    @Test
+    void testLockedAgainstSecondStore() throws IOException {
+        try (PuzzleStore store = PuzzleStore.open(tempDir)) {
+            assertThrows(IOException.class, () -> PuzzleStore.open(tempDir), "A store should only be open once");
+        }
+    }
+
+    private static Puzzle puzzle(long seed, String word) {
+        List<String> board = new ArrayList<>(Collections.nCopies(15, "..............."));
+        board.set(7, ".".repeat(7) + word + ".".repeat(8 - word.length()));
+        return new Puzzle(seed, "default", board, "AE?RSTZ", word.length(), seed % 2 == 0);
+    }
+}